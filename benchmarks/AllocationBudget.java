@@ -0,0 +1,121 @@
+package bricker.benchmarks;
+
+import bricker.main.HeadlessGame;
+import bricker.main.HeadlessWindow;
+import bricker.main.ScriptedPaddlePolicy;
+import danogl.GameManager;
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the bytes allocated per frame of steady headless play, using the thread allocation
+ * counters of the JVM's ThreadMXBean, and fails (exit status 1) when the average exceeds a
+ * budget. Board construction and warm-up frames are excluded from the measurement.
+ * <p>
+ * The game itself should allocate nothing in steady play, but the engine allocates while it
+ * updates and collides the game's objects, and the game cannot avoid that. So unless a budget is
+ * given, it is derived from the engine: a bare engine first steps as many plain moving objects as
+ * the game has, all in the default layer so every pair is checked for collisions, and the game is
+ * allowed what that costs the engine per frame.
+ * @author Batia
+ */
+public class AllocationBudget {
+    private static final int BUDGET_ARG = 0;
+    private static final int BRICK_LINES = 7;
+    private static final int BRICKS_PER_LINE = 8;
+    private static final long SEED = 42;
+    private static final int WARMUP_FRAMES = 2_000;
+    private static final int MEASURED_FRAMES = 10_000;
+    private static final int FAILURE_STATUS = 1;
+    private static final float PROBE_SPACING = 40;
+    private static final Vector2 PROBE_SIZE = new Vector2(20, 20);
+    private static final Vector2 PROBE_VELOCITY = new Vector2(0, 1);
+    private static final Vector2 PROBE_WINDOW = new Vector2(700, 500);
+
+    /**
+     * Runs the measurement.
+     * @param args An optional budget, in bytes per frame.
+     */
+    public static void main(String[] args) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        ScriptedPaddlePolicy policy = new ScriptedPaddlePolicy();
+        HeadlessGame game = new HeadlessGame(BRICK_LINES, BRICKS_PER_LINE, SEED, policy);
+        policy.attach(game.getManager());
+        for (int i = 0; i < WARMUP_FRAMES && !game.isFinished(); i++) {
+            game.step();
+        }
+        long budget;
+        if (args.length > BUDGET_ARG) {
+            budget = Long.parseLong(args[BUDGET_ARG]);
+        } else {
+            int objects = countObjects(game.getManager());
+            budget = measureEngineBytesPerFrame(threads, threadId, objects, game.getManager().getFixedStep());
+            System.out.printf("The engine alone allocates %d bytes/frame for %d objects%n", budget, objects);
+        }
+        int frames = 0;
+        long before = threads.getThreadAllocatedBytes(threadId);
+        while (frames < MEASURED_FRAMES && !game.isFinished()) {
+            game.step();
+            frames++;
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        if (frames == 0) {
+            System.out.println("The game ended during warm-up, nothing was measured");
+            System.exit(FAILURE_STATUS);
+        }
+        long perFrame = allocated / frames;
+        System.out.printf("%d bytes allocated over %d frames: %d bytes/frame (budget %d)%n",
+                allocated, frames, perFrame, budget);
+        if (perFrame > budget) {
+            System.exit(FAILURE_STATUS);
+        }
+    }
+
+    /**
+     * Measures the bytes the engine allocates per frame to update a number of objects. A bare
+     * engine steps plain objects that move without ever touching each other, after warming up as
+     * long as the game does.
+     * @param threads  The JVM's thread allocation counters.
+     * @param threadId The id of the current thread.
+     * @param objects  The number of objects.
+     * @param step     The duration of a frame, in seconds.
+     * @return The average bytes allocated per frame, rounded up.
+     */
+    private static long measureEngineBytesPerFrame(com.sun.management.ThreadMXBean threads, long threadId,
+                                                   int objects, float step) {
+        GameManager engine = new GameManager(AllocationBudget.class.getSimpleName(), PROBE_WINDOW);
+        engine.initializeGame(null, null, HeadlessWindow.createInputListener(),
+                HeadlessWindow.createWindowController(PROBE_WINDOW));
+        for (int i = 0; i < objects; i++) {
+            GameObject object = new GameObject(new Vector2(i * PROBE_SPACING, 0), PROBE_SIZE, null);
+            object.setVelocity(PROBE_VELOCITY);
+            engine.gameObjects().addGameObject(object);
+        }
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            engine.update(step);
+        }
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            engine.update(step);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        return (allocated + MEASURED_FRAMES - 1) / MEASURED_FRAMES;
+    }
+
+    /**
+     * Counts the objects in a game's collection.
+     * @param manager The game.
+     * @return The number of game objects the engine updates every frame.
+     */
+    private static int countObjects(GameManager manager) {
+        int objects = 0;
+        for (GameObject ignored : manager.gameObjects()) {
+            objects++;
+        }
+        return objects;
+    }
+}
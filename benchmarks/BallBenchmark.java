@@ -0,0 +1,61 @@
+package bricker.benchmarks;
+
+import bricker.gameobjects.Ball;
+import bricker.main.EffectScheduler;
+import bricker.main.EffectType;
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the bounce that Ball.onCollisionEnter performs on every collision, with turbo on and
+ * off; a turbo ball also counts the bounce as a hit in its effect scheduler. The bounce is
+ * called directly since the engine's Collision cannot be built outside of it.
+ * @author Batia
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BallBenchmark {
+    private static final float BALL_SIZE = 20;
+    private static final float BALL_SPEED = 100;
+    private static final int TURBO_HITS = 1 << 30;
+
+    /**
+     * Whether the ball is in turbo mode while bouncing.
+     */
+    @Param({"false", "true"})
+    public boolean turbo;
+    private Ball ball;
+
+    /**
+     * Builds a silent ball without a renderable.
+     */
+    @Setup
+    public void setUp() {
+        ball = new Ball(Vector2.ZERO, new Vector2(BALL_SIZE, BALL_SIZE), null, null, null);
+        ball.setVelocity(new Vector2(BALL_SPEED, BALL_SPEED));
+        EffectScheduler effectScheduler = new EffectScheduler((type, target) -> { });
+        ball.setEffectScheduler(effectScheduler);
+        if (turbo) {
+            ball.setTurbo(true, null);
+            effectScheduler.schedule(EffectType.TURBO, ball, 0, TURBO_HITS);
+        }
+    }
+
+    /**
+     * Bounces the ball once.
+     */
+    @Benchmark
+    public void onCollisionEnter() {
+        ball.bounce(Vector2.UP);
+    }
+}
@@ -0,0 +1,39 @@
+package bricker.benchmarks;
+
+import bricker.gameobjects.KeyInput;
+import bricker.main.BrickerGameManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building a headless game, which is dominated by createBricks, at several board sizes.
+ * @author Batia
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BoardBenchmark {
+    private static final long SEED = 42;
+
+    /**
+     * The number of brick lines of the board; the board is square.
+     */
+    @Param({"8", "60", "200", "320"})
+    public int boardSize;
+
+    /**
+     * Builds a whole board: walls, paddle, ball, lives and boardSize x boardSize bricks.
+     * @return The game manager, so the board is not optimized away.
+     */
+    @Benchmark
+    public BrickerGameManager createBricks() {
+        return BrickerGameManager.createHeadless(boardSize, boardSize, SEED, KeyInput.IDLE, won -> { });
+    }
+}
@@ -0,0 +1,99 @@
+package bricker.benchmarks;
+
+import bricker.main.EffectScheduler;
+import bricker.main.EffectTarget;
+import bricker.main.EffectType;
+import bricker.main.GameRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one step of the EffectScheduler with thousands of concurrent timed effects. Every
+ * effect that expires is scheduled again at once, so the number of effects stays constant, and
+ * the measured step includes the expiries and the rescheduling.
+ * @author Batia
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EffectSchedulerBenchmark {
+    private static final long SEED = 42;
+    private static final int LIFETIMES = 1024;
+    private static final int MIN_STEPS = 120;
+    private static final int MAX_STEPS = 1200;
+
+    /**
+     * The number of concurrent effects.
+     */
+    @Param({"1000", "10000"})
+    public int effects;
+    private final int[] lifetimes = new int[LIFETIMES];
+    private int nextLifetime = 0;
+    private EffectScheduler effectScheduler;
+
+    /**
+     * Schedules the effects on as many targets, with lifetimes between one and ten seconds.
+     */
+    @Setup
+    public void setUp() {
+        GameRandom random = new GameRandom(SEED);
+        for (int i = 0; i < LIFETIMES; i++) {
+            lifetimes[i] = MIN_STEPS + random.nextInt(MAX_STEPS - MIN_STEPS);
+        }
+        effectScheduler = new EffectScheduler(this::reschedule);
+        for (int i = 0; i < effects; i++) {
+            reschedule(EffectType.SLOW, new Target());
+        }
+    }
+
+    /**
+     * Advances the scheduler by one step.
+     */
+    @Benchmark
+    public void advance() {
+        effectScheduler.advance();
+    }
+
+    /**
+     * Schedules an effect again on the target whose effect expired.
+     * @param type   The kind of effect.
+     * @param target The target.
+     */
+    private void reschedule(EffectType type, EffectTarget target) {
+        effectScheduler.schedule(type, target, lifetimes[nextLifetime], 0);
+        nextLifetime = (nextLifetime + 1) % LIFETIMES;
+    }
+
+    /**
+     * A target that is nothing but an effect list.
+     */
+    private static class Target implements EffectTarget {
+        private int effectHead = EffectScheduler.NONE;
+
+        /**
+         * Returns the first effect on the target.
+         * @return The scheduler's index of the effect.
+         */
+        @Override
+        public int getEffectHead() {
+            return effectHead;
+        }
+
+        /**
+         * Sets the first effect on the target.
+         * @param effectHead The scheduler's index of the effect.
+         */
+        @Override
+        public void setEffectHead(int effectHead) {
+            this.effectHead = effectHead;
+        }
+    }
+}
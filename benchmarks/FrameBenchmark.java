@@ -0,0 +1,68 @@
+package bricker.benchmarks;
+
+import bricker.gameobjects.KeyInput;
+import bricker.main.BrickerGameManager;
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full simulation tick of a headless game with N balls in play (the main ball
+ * plus N - 1 pucks). Pucks lost during the tick are spawned again so N stays steady.
+ * @author Batia
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FrameBenchmark {
+    private static final long SEED = 42;
+    private static final int BRICK_LINES = 7;
+    private static final int BRICKS_PER_LINE = 8;
+    private static final float PUCK_SPEED = 100;
+    private static final Vector2 PUCK_POSITION = new Vector2(350, 250);
+    private static final Vector2 PUCK_VELOCITY = new Vector2(PUCK_SPEED, -PUCK_SPEED);
+
+    /**
+     * The number of balls in play.
+     */
+    @Param({"1", "10", "100"})
+    public int balls;
+    private BrickerGameManager manager;
+
+    /**
+     * Builds a fresh headless game for every iteration.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        manager = BrickerGameManager.createHeadless(BRICK_LINES, BRICKS_PER_LINE, SEED, KeyInput.IDLE,
+                won -> { });
+        topUpPucks();
+    }
+
+    /**
+     * Steps the game by one fixed simulation step.
+     */
+    @Benchmark
+    public void update() {
+        manager.stepSimulation();
+        topUpPucks();
+    }
+
+    /**
+     * Spawns pucks until N balls are in play again.
+     */
+    private void topUpPucks() {
+        for (int i = manager.getPucks().getLiveCount() + 1; i < balls; i++) {
+            manager.spawnPuck(PUCK_POSITION, PUCK_VELOCITY);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package bricker.benchmarks;
+
+import bricker.brick_strategies.CollisionStrategyFactory;
+import bricker.brick_strategies.StrategyDispatcher;
+import bricker.brick_strategies.StrategyType;
+import bricker.gameobjects.BrickField;
+import bricker.gameobjects.KeyInput;
+import bricker.main.BrickerGameManager;
+import bricker.main.GameRandom;
+import danogl.GameObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures choosing brick strategy codes, including the recursive double strategy path, and the
+ * dispatch of a double strategy code by StrategyDispatcher.
+ * @author Batia
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StrategyBenchmark {
+    private static final long SEED = 42;
+    private static final int MAX_RANDOM = 10;
+    // a double of two strategies that only act once per game, so repeated hits do not pile up objects
+    private static final byte DOUBLE_CODE = (byte) (StrategyType.DOUBLE.getMask()
+            | StrategyType.EXTRA_PADDLE.getMask() | StrategyType.TURBO.getMask());
+    // the exact rolls of one call: a double whose first pick is a nested double (puck, extra
+    // life), then extra paddle, then the two re-rolls of chooseDoubleAgain (extra life twice)
+    private static final int[] DOUBLE_ROLLS = {9, 9, 5, 8, 6, 8, 8};
+    private CollisionStrategyFactory randomFactory;
+    private CollisionStrategyFactory doubleFactory;
+    private StrategyDispatcher dispatcher;
+    private BrickField brickField;
+    private GameObject ball;
+
+    /**
+     * Builds a headless game and the factories under test.
+     */
+    @Setup
+    public void setUp() {
+        BrickerGameManager manager =
+                BrickerGameManager.createHeadless(1, 1, SEED, KeyInput.IDLE, won -> { });
+        randomFactory = new CollisionStrategyFactory(new GameRandom(SEED));
+        doubleFactory = new CollisionStrategyFactory(new ScriptedRandom(DOUBLE_ROLLS));
+        dispatcher = new StrategyDispatcher(manager);
+        // the game's only brick is removed by the first hit, later hits take the full dispatch path
+        brickField = manager.getBrickField();
+        brickField.setCode(0, DOUBLE_CODE);
+        ball = manager.getBall();
+    }
+
+    /**
+     * Chooses a strategy code with the game's probabilities.
+     * @return The chosen code.
+     */
+    @Benchmark
+    public byte generateBrickCode() {
+        return randomFactory.generateBrickCode(MAX_RANDOM);
+    }
+
+    /**
+     * Chooses a double strategy holding a nested double, the deepest path of createDoubleCode.
+     * @return The chosen code.
+     */
+    @Benchmark
+    public byte generateNestedDoubleCode() {
+        return doubleFactory.generateBrickCode(MAX_RANDOM);
+    }
+
+    /**
+     * Dispatches a hit on a double strategy code combining two strategies.
+     */
+    @Benchmark
+    public void doubleCodeOnCollision() {
+        dispatcher.onCollision(brickField, 0, ball);
+    }
+
+    /**
+     * A GameRandom whose nextInt replays a fixed cycle of rolls.
+     */
+    private static class ScriptedRandom extends GameRandom {
+        private final int[] rolls;
+        private int next = 0;
+
+        /**
+         * Constructs a new scripted random.
+         * @param rolls The rolls to replay, in order.
+         */
+        ScriptedRandom(int[] rolls) {
+            super(SEED);
+            this.rolls = rolls;
+        }
+
+        /**
+         * Returns the next scripted roll, limited to the bound.
+         * @param bound The upper bound.
+         * @return The next roll.
+         */
+        @Override
+        public int nextInt(int bound) {
+            int roll = rolls[next];
+            next = (next + 1) % rolls.length;
+            return Math.min(roll, bound - 1);
+        }
+    }
+}
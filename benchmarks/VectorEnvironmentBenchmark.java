@@ -0,0 +1,79 @@
+package bricker.benchmarks;
+
+import bricker.main.VectorEnvironment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one step of a VectorEnvironment, every board taking one action, with the boards
+ * stepped by one or several threads. Boards whose episode ends start a new one during the step,
+ * so the time and allocation per step include the amortized cost of new episodes.
+ * @author Batia
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VectorEnvironmentBenchmark {
+    private static final long SEED = 42;
+    private static final int BRICK_LINES = 7;
+    private static final int BRICKS_PER_LINE = 8;
+    private static final int MAX_PUCKS = 4;
+    private static final int MAX_FRAMES = 10_000;
+    private static final int ACTIONS = 3;
+
+    /**
+     * The number of boards.
+     */
+    @Param({"64", "256"})
+    public int boards;
+    /**
+     * The number of threads stepping the boards, the benchmark's thread included.
+     */
+    @Param({"1", "4"})
+    public int threads;
+    private VectorEnvironment environment;
+    private int[] actions;
+    private int nextAction = 0;
+
+    /**
+     * Creates the environment, binds its buffers and resets it.
+     */
+    @Setup
+    public void setUp() {
+        environment = new VectorEnvironment(boards, BRICK_LINES, BRICKS_PER_LINE, MAX_PUCKS, MAX_FRAMES,
+                threads);
+        environment.bind(new float[boards * environment.getObservationSize()], new float[boards],
+                new boolean[boards]);
+        environment.reset(SEED);
+        actions = new int[boards];
+    }
+
+    /**
+     * Steps every board, each board moving in its own direction.
+     */
+    @Benchmark
+    public void step() {
+        for (int i = 0; i < boards; i++) {
+            actions[i] = (i + nextAction) % ACTIONS;
+        }
+        nextAction++;
+        environment.step(actions);
+    }
+
+    /**
+     * Stops the environment's worker threads.
+     */
+    @TearDown
+    public void tearDown() {
+        environment.close();
+    }
+}
@@ -1,5 +1,6 @@
 package bricker.brick_strategies;
 
+import bricker.gameobjects.BrickField;
 import danogl.GameObject;
 import bricker.main.BrickerGameManager;
 
@@ -21,13 +22,15 @@ public class BasicCollisionStrategy implements CollisionStrategy{
 
     /**
      * Defines the actions to take when a collision is detected between two game objects.
-     * In this basic strategy, the brick (object1) is removed from the game.
-     * @param object1 The first game object involved in the collision (typically the brick).
-     * @param object2 The second game object involved in the collision (e.g., the ball).
+     * In this basic strategy, the brick is removed from the game.
+     * @param brickField The field holding the brick.
+     * @param brick      The index of the brick in the field.
+     * @param other      The game object that hit the brick (e.g., the ball).
      */
      @Override
-    public void onCollision(GameObject object1, GameObject object2) {
-         brickerGameManager.removeBrick(object1);
+    public void onCollision(BrickField brickField, int brick, GameObject other) {
+         brickerGameManager.removeBrick(brick);
+         brickerGameManager.strategyFired(StrategyType.BASIC);
 
         }
     }
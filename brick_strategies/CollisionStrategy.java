@@ -1,18 +1,20 @@
 package bricker.brick_strategies;
 
+import bricker.gameobjects.BrickField;
 import danogl.GameObject;
 
 /**
  * CollisionStrategy is an interface for defining how collisions between
- * game objects should be handled.
+ * a brick and another game object should be handled.
  * @author Batia
  */
 public interface CollisionStrategy {
     /**
-     * Handles the collision between two game objects.
+     * Handles the collision between a brick and another game object.
      *
-     * @param object1 The first game object involved in the collision.
-     * @param object2 The second game object involved in the collision.
+     * @param brickField The field holding the brick.
+     * @param brick      The index of the brick in the field.
+     * @param other      The game object that hit the brick.
      */
-    void onCollision(GameObject object1, GameObject object2);
+    void onCollision(BrickField brickField, int brick, GameObject other);
 }
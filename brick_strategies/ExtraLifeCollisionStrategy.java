@@ -1,54 +1,44 @@
 package bricker.brick_strategies;
 
+import bricker.gameobjects.BrickField;
 import danogl.GameObject;
-import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
-import bricker.gameobjects.Heart;
 import bricker.main.BrickerGameManager;
 
  /**
  * A collision strategy that handles the collision event between a brick and another game object.
- * When a collision is detected, the brick is removed, and a heart object is instantiated and falls down,
- * potentially granting the player an extra life if collected.
+ * When a collision is detected, the brick is removed, and a heart object is taken from the game's
+ * heart pool and falls down from the middle of the brick, potentially granting the player an
+ * extra life if collected. A single instance is shared by all bricks of a board.
  * @author Batia
  */
 public class ExtraLifeCollisionStrategy implements CollisionStrategy{
     private static final float FALLING_HEART_SPEED = 20;
-    private final int HEART_SIZE = 20;
-    private final Vector2 HEART_SIZE_DIMENSIONS = new Vector2(HEART_SIZE, HEART_SIZE);
-    private final Renderable heartRenderable;
-    private final Vector2 heartPositionOnBoard;
+    private static final Vector2 FALLING_HEART_VELOCITY = Vector2.DOWN.mult(FALLING_HEART_SPEED);
+    private static final float HALF = 0.5f;
     private final BrickerGameManager brickerGameManager;
-    private Heart fallingHeart;
 
      /**
       * Constructor for the ExtraLifeCollisionStrategy.
-      * @param heartRenderable     The renderable for the heart object.
-      * @param heartPositionOnBoard The initial position of the heart on the board.
       * @param brickerGameManager  The game manager that controls the game's logic.
       */
-    public ExtraLifeCollisionStrategy(Renderable heartRenderable,
-      Vector2 heartPositionOnBoard, BrickerGameManager brickerGameManager ) {
-        this.heartRenderable = heartRenderable;
-        this.heartPositionOnBoard = heartPositionOnBoard;
+    public ExtraLifeCollisionStrategy(BrickerGameManager brickerGameManager) {
         this.brickerGameManager = brickerGameManager;
     }
 
      /**
       * Handles the collision between two game objects. Removes the brick from the game and spawns
       * a falling heart that can grant an extra life to the player if collected.
-      * @param object1 The first game object involved in the collision, typically the brick.
-      * @param object2 The second game object involved in the collision.
+      * @param brickField The field holding the brick.
+      * @param brick      The index of the brick in the field.
+      * @param other      The game object that hit the brick.
       */
     @Override
-    public void onCollision(GameObject object1, GameObject object2) {
-        brickerGameManager.removeBrick(object1);
-        fallingHeart = new Heart(heartPositionOnBoard, HEART_SIZE_DIMENSIONS, heartRenderable,
-                                                                                        brickerGameManager);
-        fallingHeart.setVelocity(Vector2.DOWN.mult(FALLING_HEART_SPEED));
-        brickerGameManager.addObjectToGameObjects(fallingHeart);
-        // add heart and update lives in manager
-
-
+    public void onCollision(BrickField brickField, int brick, GameObject other) {
+        brickerGameManager.removeBrick(brick);
+        brickerGameManager.strategyFired(StrategyType.EXTRA_LIFE);
+        Vector2 heartPosition = new Vector2(brickField.getX(brick) + HALF * brickField.getWidth(brick),
+                brickField.getY(brick));
+        brickerGameManager.spawnFallingHeart(heartPosition, FALLING_HEART_VELOCITY);
     }
 }
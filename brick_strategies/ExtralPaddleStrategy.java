@@ -1,10 +1,8 @@
 package bricker.brick_strategies;
 
 
-import danogl.gui.rendering.Renderable;
-import bricker.gameobjects.AdditionalPaddle;
+import bricker.gameobjects.BrickField;
 import danogl.GameObject;
-import danogl.gui.UserInputListener;
 import danogl.util.Vector2;
 import bricker.main.BrickerGameManager;
 
@@ -14,48 +12,30 @@ import bricker.main.BrickerGameManager;
  * @author Batia
  */
 public class ExtralPaddleStrategy implements CollisionStrategy {
-    private static final float PADDLE_HEIGHT = 15;
-    private static final float PADDLE_WIDTH = 100;
-    private static final Vector2 PADDLE_DIMENSIONS = new Vector2(PADDLE_WIDTH, PADDLE_HEIGHT);
     private final BrickerGameManager brickerGameManager;
-    private final UserInputListener inputListener;
-    private final Renderable paddleImage;
-    private final Vector2 windowDimensions;
+    private final Vector2 paddlePosition;
 
     /**
      * Constructor for the extra paddle strategy.
-     * @param inputListener an input listener.
-     * @param paddleImage The image of the paddle.
+     * @param brickerGameManager The game manager that controls the game's logic.
      */
-    public ExtralPaddleStrategy(BrickerGameManager brickerGameManager, UserInputListener inputListener,
-                                Renderable paddleImage) {
+    public ExtralPaddleStrategy(BrickerGameManager brickerGameManager) {
         this.brickerGameManager = brickerGameManager;
-        this.inputListener = inputListener;
-        this.paddleImage = paddleImage;
-        this.windowDimensions = brickerGameManager.getWindowDimensions();
+        Vector2 windowDimensions = brickerGameManager.getWindowDimensions();
+        this.paddlePosition = new Vector2(windowDimensions.x() / 2, windowDimensions.y() / 2);
     }
 
     /**
      * The method is called when a ball collides with a brick. checks if there is an extra paddle in the game,
-     * if not creates one.
-
+     * if not takes one from the game's extra paddle pool.
+     * @param brickField The field holding the brick.
+     * @param brick      The index of the brick in the field.
+     * @param other      The game object that hit the brick.
      */
     @Override
-    public void onCollision(GameObject obj1, GameObject obj2) {
-        brickerGameManager.removeBrick(obj1);
-        if (brickerGameManager.getExtraPaddle() == null){
-            createAdditionalPaddle();
-        }
-    }
-
-    /**
-     * Creates the extra paddle.
-     */
-    private void createAdditionalPaddle() {
-        AdditionalPaddle anotherPaddle =
-            new AdditionalPaddle(new Vector2(windowDimensions.x() / 2, windowDimensions.y() / 2),
-            PADDLE_DIMENSIONS, paddleImage, inputListener, windowDimensions, brickerGameManager);
-        brickerGameManager.setExtraPaddle(anotherPaddle);
-        brickerGameManager.addObjectToGameObjects(anotherPaddle);
+    public void onCollision(BrickField brickField, int brick, GameObject other) {
+        brickerGameManager.removeBrick(brick);
+        brickerGameManager.strategyFired(StrategyType.EXTRA_PADDLE);
+        brickerGameManager.spawnExtraPaddle(paddlePosition);
     }
 }
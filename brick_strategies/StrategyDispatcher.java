@@ -0,0 +1,72 @@
+package bricker.brick_strategies;
+
+import bricker.gameobjects.BrickField;
+import bricker.main.BrickerGameManager;
+import danogl.GameObject;
+
+/**
+ * StrategyDispatcher is the only collision strategy a brick field calls. It decodes the strategy
+ * code of the hit brick and runs the matching strategies, one shared instance of each for the
+ * whole board; they hold no per-brick state and compute everything they need from the hit brick.
+ * Every strategy is called through its own class, so each call is monomorphic.
+ * @author Batia
+ */
+public class StrategyDispatcher implements CollisionStrategy {
+    private final BrickerGameManager brickerGameManager;
+    private final BasicCollisionStrategy basicStrategy;
+    private final PuckStrategy puckStrategy;
+    private final ExtralPaddleStrategy extraPaddleStrategy;
+    private final TurboStrategy turboStrategy;
+    private final ExtraLifeCollisionStrategy extraLifeStrategy;
+    private final TimedEffectStrategy timedEffectStrategy;
+
+    /**
+     * Constructs a new dispatcher and the shared strategies of a board.
+     * @param brickerGameManager The game manager that controls the game's logic.
+     */
+    public StrategyDispatcher(BrickerGameManager brickerGameManager) {
+        this.brickerGameManager = brickerGameManager;
+        this.basicStrategy = new BasicCollisionStrategy(brickerGameManager);
+        this.puckStrategy = new PuckStrategy(brickerGameManager);
+        this.extraPaddleStrategy = new ExtralPaddleStrategy(brickerGameManager);
+        this.turboStrategy = new TurboStrategy(brickerGameManager);
+        this.extraLifeStrategy = new ExtraLifeCollisionStrategy(brickerGameManager);
+        this.timedEffectStrategy = new TimedEffectStrategy(brickerGameManager);
+    }
+
+    /**
+     * Runs the strategies encoded in the hit brick's strategy code. A basic brick is only
+     * removed; a double brick runs every strategy whose bit is set; an effect brick starts its
+     * effect.
+     * @param brickField The field holding the brick.
+     * @param brick      The index of the brick in the field.
+     * @param other      The game object that hit the brick.
+     */
+    @Override
+    public void onCollision(BrickField brickField, int brick, GameObject other) {
+        byte code = brickField.getCode(brick);
+        if (StrategyType.EFFECT.isIn(code)) {
+            timedEffectStrategy.onCollision(brickField, brick, other);
+            return;
+        }
+        if (StrategyType.DOUBLE.isIn(code)) {
+            brickerGameManager.strategyFired(StrategyType.DOUBLE);
+        }
+        if ((code & ~StrategyType.DOUBLE.getMask()) == StrategyType.BASIC.getMask()) {
+            basicStrategy.onCollision(brickField, brick, other);
+            return;
+        }
+        if (StrategyType.PUCK.isIn(code)) {
+            puckStrategy.onCollision(brickField, brick, other);
+        }
+        if (StrategyType.EXTRA_PADDLE.isIn(code)) {
+            extraPaddleStrategy.onCollision(brickField, brick, other);
+        }
+        if (StrategyType.TURBO.isIn(code)) {
+            turboStrategy.onCollision(brickField, brick, other);
+        }
+        if (StrategyType.EXTRA_LIFE.isIn(code)) {
+            extraLifeStrategy.onCollision(brickField, brick, other);
+        }
+    }
+}
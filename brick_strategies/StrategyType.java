@@ -0,0 +1,53 @@
+package bricker.brick_strategies;
+
+/**
+ * The kinds of collision strategies a brick can have. Each kind has a bit in a brick's strategy
+ * code; a basic brick has no bits set and a double brick sets the DOUBLE bit together with the
+ * bits of the strategies it combines. An effect brick sets the EFFECT bit and holds the index of
+ * its effect in the low bits instead, so it never combines with other strategies. Also used to
+ * count how often each strategy fires.
+ * @author Batia
+ */
+public enum StrategyType {
+    /** Removes the brick. */
+    BASIC(0),
+    /** Spawns two pucks. */
+    PUCK(1),
+    /** Spawns the extra paddle. */
+    EXTRA_PADDLE(1 << 1),
+    /** Puts the main ball in turbo mode. */
+    TURBO(1 << 2),
+    /** Drops a heart. */
+    EXTRA_LIFE(1 << 3),
+    /** Combines two or three other strategies. */
+    DOUBLE(1 << 4),
+    /** Starts a timed effect, whose index is held in the low bits of the code. */
+    EFFECT(1 << 5);
+
+    private final byte mask;
+
+    /**
+     * Constructs a strategy type.
+     * @param mask The bit of the strategy in a brick's strategy code.
+     */
+    StrategyType(int mask) {
+        this.mask = (byte) mask;
+    }
+
+    /**
+     * Returns the bit of the strategy in a brick's strategy code.
+     * @return The mask of the strategy, 0 for BASIC.
+     */
+    public byte getMask() {
+        return mask;
+    }
+
+    /**
+     * Returns whether a brick's strategy code includes this strategy.
+     * @param code The strategy code of a brick.
+     * @return true if the code has this strategy's bit set.
+     */
+    public boolean isIn(byte code) {
+        return (code & mask) != 0;
+    }
+}
@@ -0,0 +1,46 @@
+package bricker.brick_strategies;
+
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.BrickField;
+import bricker.main.BrickerGameManager;
+import bricker.main.EffectType;
+import danogl.GameObject;
+
+/**
+ * TimedEffectStrategy is the collision strategy of effect bricks. The brick is removed and the
+ * effect held in its strategy code starts: slow, quicken and gravity on the ball or puck that hit
+ * it, widen and narrow on the main paddle. Effects stack, and each one ends on its own when its
+ * time is up.
+ * @author Batia
+ */
+public class TimedEffectStrategy implements CollisionStrategy {
+    private final BrickerGameManager brickerGameManager;
+
+    /**
+     * Constructs a new timed effect strategy.
+     * @param brickerGameManager The game manager that controls the game's logic.
+     */
+    public TimedEffectStrategy(BrickerGameManager brickerGameManager) {
+        this.brickerGameManager = brickerGameManager;
+    }
+
+    /**
+     * Removes the brick and starts its effect.
+     * @param brickField The field holding the brick.
+     * @param brick      The index of the brick in the field.
+     * @param other      The game object that hit the brick.
+     */
+    @Override
+    public void onCollision(BrickField brickField, int brick, GameObject other) {
+        brickerGameManager.removeBrick(brick);
+        brickerGameManager.strategyFired(StrategyType.EFFECT);
+        EffectType type = EffectType.ofBrickCode(brickField.getCode(brick));
+        if (type == null) {
+            return;
+        }
+        switch (type) {
+            case WIDEN, NARROW -> brickerGameManager.startEffect(type, brickerGameManager.getMainPaddle());
+            default -> brickerGameManager.startEffect(type, (Ball) other);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package bricker.gameobjects;
 
+import bricker.main.EffectScheduler;
+import bricker.main.EffectTarget;
+import bricker.main.SoundDispatcher;
 import danogl.GameObject;
 import danogl.collisions.Collision;
 import danogl.gui.Sound;
@@ -10,15 +13,29 @@ import danogl.util.Vector2;
 /**
  * The `Ball` class represents a ball object in the Bricker game.
  * It extends the `GameObject` class and includes information about collision handling and a collision sound.
+ * Timed effects on the ball are kept by an EffectScheduler, which every bounce counts as a hit.
+ * Gravity adds to the ball's fall speed every frame, but the engine's vectors are immutable, so
+ * the speed gained is kept aside and only folded into the velocity in steps of FALL_SPEED_STEP,
+ * on a bounce and when gravity ends, rather than allocating a velocity every frame.
  * @author Batia
  */
-public class Ball extends GameObject {
-    private static final int MAX_TURBO_COLLISIONS = 6;
-    private static final float SPEED_MULTIPLIER = 1.4f;
+public class Ball extends GameObject implements EffectTarget {
+    private static final float FALL_SPEED_STEP = 10;
     private final Renderable originalRenderer;
     private boolean isTurbo = false;
-    private int collisionCounter = 0;
+    private float gravity = 0;
+    // speed gained from gravity that is not yet part of the velocity
+    private float pendingFallSpeed = 0;
+    private EffectScheduler effectScheduler;
+    private int effectHead = EffectScheduler.NONE;
     private final Sound collisionSound;
+    private final SoundDispatcher soundDispatcher;
+    // the four sign variants of the current velocity, so axis-aligned bounces do not allocate
+    private final Vector2[] velocityVariants = new Vector2[4];
+    private float variantsSpeedX = Float.NaN;
+    private float variantsSpeedY = Float.NaN;
+    private float previousX;
+    private float previousY;
 
     /**
      * Construct a new Ball instance.
@@ -27,12 +44,16 @@ public class Ball extends GameObject {
      * @param dimensions    Width and height in window coordinates.
      * @param renderable    The renderable representing the object. Can be null, in which case
      *                      the GameObject will not be rendered.
-     * @param collisionSound The sound to play upon collision.
+     * @param collisionSound The sound to play upon collision. Can be null, in which case
+     *                       the ball is silent.
+     * @param soundDispatcher The dispatcher playing the collision sound off the game thread.
+     *                        Can be null, in which case the sound is played directly.
      */
     public Ball(Vector2 topLeftCorner, Vector2 dimensions,
-                Renderable renderable, Sound collisionSound) {
+                Renderable renderable, Sound collisionSound, SoundDispatcher soundDispatcher) {
         super(topLeftCorner, dimensions, renderable);
         this.collisionSound = collisionSound;
+        this.soundDispatcher = soundDispatcher;
         this.originalRenderer = renderable;
     }
 
@@ -46,39 +67,131 @@ public class Ball extends GameObject {
     @Override
     public void onCollisionEnter(GameObject otherObject, Collision collision) {
         super.onCollisionEnter(otherObject, collision);
-        Vector2 newVel = getVelocity().flipped(collision.getNormal());
-        setVelocity(newVel);
-        collisionSound.play();
-        if (isTurbo) {
-            handleTurboCollision();
+        bounce(collision.getNormal());
+    }
+
+    /**
+     * Reverses the ball's velocity along the given normal and plays the collision sound.
+     * Used both for engine collisions and for bricks, whose collisions are resolved by the
+     * game's brick field.
+     * @param normal The normal of the surface the ball hit.
+     */
+    public void bounce(Vector2 normal) {
+        applyPendingFallSpeed();
+        Vector2 velocity = getVelocity();
+        if (normal.x() == 0) {
+            setVelocity(getVelocityVariant(velocity.x(), -velocity.y()));
+        } else if (normal.y() == 0) {
+            setVelocity(getVelocityVariant(-velocity.x(), velocity.y()));
+        } else {
+            setVelocity(velocity.flipped(normal));
         }
+        if (collisionSound != null) {
+            if (soundDispatcher != null) {
+                soundDispatcher.trigger(collisionSound);
+            } else {
+                collisionSound.play();
+            }
+        }
+        if (effectScheduler != null && effectHead != EffectScheduler.NONE) {
+            effectScheduler.hit(this);
+        }
+    }
+
+    /**
+     * Moves the ball, then pulls it down if it is under gravity. The speed gained reaches the
+     * velocity once it adds up to FALL_SPEED_STEP, or as soon as gravity ends.
+     * @param deltaTime The time in seconds since the last update.
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        if (gravity != 0 || pendingFallSpeed != 0) {
+            pendingFallSpeed += gravity * deltaTime;
+            if (gravity == 0 || Math.abs(pendingFallSpeed) >= FALL_SPEED_STEP) {
+                applyPendingFallSpeed();
+            }
+        }
+    }
+
+    /**
+     * Sets the velocity of the ball. Speed gained from gravity and not yet applied is dropped,
+     * since the new velocity replaces it.
+     * @param velocity The new velocity.
+     */
+    @Override
+    public void setVelocity(Vector2 velocity) {
+        pendingFallSpeed = 0;
+        super.setVelocity(velocity);
     }
 
     /**
-     * Deactivates the turbo mode for the ball.
-     * Resets the ball's speed and appearance to their original state,
-     * disables turbo mode, and resets the turbo collision counter.
+     * Multiplies the speed of the ball, keeping its direction, including the speed gained from
+     * gravity that is not yet part of the velocity.
+     * @param factor The speed factor.
      */
-    private void deactivateTurbo() {
-        // Reset ball's speed and renderable
-        setVelocity(this.getVelocity().mult(1 / SPEED_MULTIPLIER));
-        this.renderer().setRenderable(originalRenderer);
-        this.isTurbo = false;
-        collisionCounter = 0;
+    public void scaleVelocity(float factor) {
+        Vector2 velocity = getVelocity();
+        setVelocity(new Vector2(velocity.x() * factor, (velocity.y() + pendingFallSpeed) * factor));
     }
 
     /**
-     * Handles a collision while the ball is in turbo mode.
-     * Increments the turbo collision counter and deactivates turbo mode
-     * if the maximum number of turbo collisions has been reached.
+     * Folds the speed gained from gravity into the velocity.
      */
-    private void handleTurboCollision() {
-        if (collisionCounter <= MAX_TURBO_COLLISIONS) {
-            collisionCounter++;
+    private void applyPendingFallSpeed() {
+        if (pendingFallSpeed != 0) {
+            Vector2 velocity = getVelocity();
+            setVelocity(new Vector2(velocity.x(), velocity.y() + pendingFallSpeed));
         }
-        if (collisionCounter > MAX_TURBO_COLLISIONS) {
-            deactivateTurbo();
+    }
+
+    /**
+     * Returns the cached velocity with the given components. The cache holds the four sign
+     * variants of the current speed along each axis and is rebuilt only when the speed changes,
+     * e.g. on turbo or when the ball is launched again.
+     * @param velocityX The x component of the velocity.
+     * @param velocityY The y component of the velocity.
+     * @return A shared Vector2 equal to (velocityX, velocityY).
+     */
+    private Vector2 getVelocityVariant(float velocityX, float velocityY) {
+        float speedX = Math.abs(velocityX);
+        float speedY = Math.abs(velocityY);
+        if (speedX != variantsSpeedX || speedY != variantsSpeedY) {
+            variantsSpeedX = speedX;
+            variantsSpeedY = speedY;
+            velocityVariants[0] = new Vector2(speedX, speedY);
+            velocityVariants[1] = new Vector2(-speedX, speedY);
+            velocityVariants[2] = new Vector2(speedX, -speedY);
+            velocityVariants[3] = new Vector2(-speedX, -speedY);
         }
+        int variant = (velocityX < 0 ? 1 : 0) + (velocityY < 0 ? 2 : 0);
+        return velocityVariants[variant];
+    }
+
+    /**
+     * Remembers the current position of the ball as its position at the start of the tick,
+     * from which its movement is swept for continuous collision detection.
+     */
+    public void storePreviousPosition() {
+        Vector2 topLeftCorner = getTopLeftCorner();
+        previousX = topLeftCorner.x();
+        previousY = topLeftCorner.y();
+    }
+
+    /**
+     * Returns the x coordinate of the ball's top-left corner at the start of the tick.
+     * @return The previous x coordinate.
+     */
+    public float getPreviousX() {
+        return previousX;
+    }
+
+    /**
+     * Returns the y coordinate of the ball's top-left corner at the start of the tick.
+     * @return The previous y coordinate.
+     */
+    public float getPreviousY() {
+        return previousY;
     }
 
     /**
@@ -90,23 +203,71 @@ public class Ball extends GameObject {
     }
 
     /**
-     * Sets the turbo status of the ball.
-     * Updates the ball's turbo mode to the provided status and resets
-     * the turbo collision counter to zero.
-     * @param turboStatus The new turbo mode status (true for enabled, false for disabled).
+     * Sets the turbo status of the ball and its image; the velocity is left unchanged.
+     * @param turboStatus     The new turbo mode status (true for enabled, false for disabled).
+     * @param turboRenderable The image of the ball in turbo mode.
      */
-    public void setTurbo(boolean turboStatus) {
+    public void setTurbo(boolean turboStatus, Renderable turboRenderable) {
         isTurbo = turboStatus;
-        collisionCounter = 0;
+        renderer().setRenderable(turboStatus ? turboRenderable : originalRenderer);
     }
 
     /**
-     * Returns the number of collisions with bricks.
-     * @return The collision counter.
+     * Returns the downward acceleration the ball is under.
+     * @return The gravity, in pixels per second squared.
      */
-    public int getCollisionCounter() {
-        return collisionCounter;
+    public float getGravity() {
+        return gravity;
+    }
+
+    /**
+     * Sets the downward acceleration the ball is under. Gravity effects stack by adding up.
+     * @param gravity The gravity, in pixels per second squared.
+     */
+    public void setGravity(float gravity) {
+        this.gravity = gravity;
     }
-}
 
+    /**
+     * Returns the speed gained from gravity that is not yet part of the velocity.
+     * @return The pending fall speed, in pixels per second.
+     */
+    public float getPendingFallSpeed() {
+        return pendingFallSpeed;
+    }
+
+    /**
+     * Sets the speed gained from gravity that is not yet part of the velocity, e.g. when a saved
+     * game is restored. Call it after setting the velocity, which drops the pending speed.
+     * @param pendingFallSpeed The pending fall speed, in pixels per second.
+     */
+    public void setPendingFallSpeed(float pendingFallSpeed) {
+        this.pendingFallSpeed = pendingFallSpeed;
+    }
 
+    /**
+     * Sets the scheduler of the effects on the ball, which the ball tells of its bounces.
+     * @param effectScheduler The effect scheduler of the game.
+     */
+    public void setEffectScheduler(EffectScheduler effectScheduler) {
+        this.effectScheduler = effectScheduler;
+    }
+
+    /**
+     * Returns the first effect on the ball.
+     * @return The scheduler's index of the effect, EffectScheduler.NONE if there is none.
+     */
+    @Override
+    public int getEffectHead() {
+        return effectHead;
+    }
+
+    /**
+     * Sets the first effect on the ball. Only called by the EffectScheduler.
+     * @param effectHead The scheduler's index of the effect, EffectScheduler.NONE if there is none.
+     */
+    @Override
+    public void setEffectHead(int effectHead) {
+        this.effectHead = effectHead;
+    }
+}
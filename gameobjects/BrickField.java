@@ -0,0 +1,432 @@
+package bricker.gameobjects;
+
+import bricker.brick_strategies.CollisionStrategy;
+import bricker.main.SweptCollision;
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The `BrickField` class holds every brick of the board as a single game object. Bricks are not
+ * game objects of their own: their bounds are kept in primitive arrays, the bricks still in the
+ * game in a bitset and their collision strategies as one strategy code byte each, so a brick
+ * costs a few tens of bytes and a board of any size is built with a handful of allocations.
+ * The field is not rendered itself; the bricks are drawn into the game's static layer.
+ * A single collision strategy decodes the code of whichever brick is hit. Bricks are laid out
+ * in a uniform grid, brick i being stored in row i / columns and column i % columns; balls are
+ * swept only through the cells their path overlaps, so a fast ball cannot tunnel through a brick
+ * and the cost of a frame does not grow with the number of bricks.
+ * The stored rows form a ring: scrollDown moves every row down by one cell by rotating which
+ * stored row is shown at the top, retiring the bottom row and reusing its cells for a new top
+ * row, so the field can scroll forever without moving or allocating anything.
+ * @author Batia
+ */
+public class BrickField extends GameObject {
+    private final float originX;
+    private final float originY;
+    private final float cellWidth;
+    private final float cellHeight;
+    private final int rows;
+    private final int columns;
+    private final float[] x;
+    private final float[] y;
+    private final float[] width;
+    private final float[] height;
+    private final BitSet live;
+    private final int[] rowLiveCounts;
+    private int scroll = 0;
+    private int clearedRows = 0;
+    private final byte[] strategyCodes;
+    private final CollisionStrategy strategy;
+    private final SweptCollision sweptCollision = new SweptCollision();
+    private float hitTime;
+
+    /**
+     * Constructs a new empty field.
+     * @param originX          The x coordinate of the top-left corner of the first cell.
+     * @param originY          The y coordinate of the top-left corner of the first cell.
+     * @param cellWidth        The horizontal distance between two neighbouring bricks.
+     * @param cellHeight       The vertical distance between two neighbouring bricks.
+     * @param rows             The number of rows of the field.
+     * @param columns          The number of columns of the field.
+     * @param strategy         The strategy activated when a brick is hit, given the brick's index.
+     */
+    public BrickField(float originX, float originY, float cellWidth, float cellHeight, int rows, int columns,
+                      CollisionStrategy strategy) {
+        super(new Vector2(originX, originY), new Vector2(columns * cellWidth, rows * cellHeight), null);
+        this.originX = originX;
+        this.originY = originY;
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        this.rows = rows;
+        this.columns = columns;
+        int size = rows * columns;
+        this.x = new float[size];
+        this.y = new float[size];
+        this.width = new float[size];
+        this.height = new float[size];
+        this.live = new BitSet(size);
+        this.rowLiveCounts = new int[rows];
+        this.strategyCodes = new byte[size];
+        this.strategy = strategy;
+    }
+
+    /**
+     * Fills every cell of the field with a brick of the given size, in one pass over the arrays.
+     * @param brickWidth  The width of a brick.
+     * @param brickHeight The height of a brick.
+     */
+    public void fillGrid(float brickWidth, float brickHeight) {
+        for (int row = 0; row < rows; row++) {
+            float rowY = originY + row * cellHeight;
+            for (int column = 0; column < columns; column++) {
+                int brick = row * columns + column;
+                x[brick] = originX + column * cellWidth;
+                y[brick] = rowY;
+                width[brick] = brickWidth;
+                height[brick] = brickHeight;
+            }
+        }
+        live.set(0, size());
+        Arrays.fill(rowLiveCounts, columns);
+        scroll = 0;
+        clearedRows = 0;
+    }
+
+    /**
+     * Sets the strategy code of a brick.
+     * @param brick The index of the brick.
+     * @param code  The code of the strategies to activate when the brick is hit.
+     */
+    public void setCode(int brick, byte code) {
+        strategyCodes[brick] = code;
+    }
+
+    /**
+     * Returns the strategy code of a brick.
+     * @param brick The index of the brick.
+     * @return The code of the strategies activated when the brick is hit.
+     */
+    public byte getCode(int brick) {
+        return strategyCodes[brick];
+    }
+
+    /**
+     * Removes a brick from the field.
+     * @param brick The index of the brick.
+     * @return true if the brick was still in the field, false otherwise.
+     */
+    public boolean remove(int brick) {
+        if (!live.get(brick)) {
+            return false;
+        }
+        live.clear(brick);
+        if (--rowLiveCounts[brick / columns] == 0) {
+            clearedRows++;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of rows whose last brick was removed since the last call, and resets it.
+     * @return The number of rows cleared.
+     */
+    public int takeClearedRows() {
+        int cleared = clearedRows;
+        clearedRows = 0;
+        return cleared;
+    }
+
+    /**
+     * Scrolls every row down by one cell. The bottom row leaves the field: its bricks are retired
+     * and its cells become a new top row, full of bricks whose strategy codes the caller sets.
+     * Takes time proportional to the number of columns, not to the size of the field.
+     * @return The number of live bricks retired with the bottom row.
+     */
+    public int scrollDown() {
+        int storedRow = toStoredRow(rows - 1);
+        int first = storedRow * columns;
+        int retired = rowLiveCounts[storedRow];
+        live.set(first, first + columns);
+        rowLiveCounts[storedRow] = columns;
+        scroll = (scroll + 1) % rows;
+        return retired;
+    }
+
+    /**
+     * Returns the number of rows the field is currently scrolled by, modulo the number of rows.
+     * @return The row shown at the top is stored row (rows - scroll) % rows.
+     */
+    public int getScroll() {
+        return scroll;
+    }
+
+    /**
+     * Restores the scroll of the field, e.g. from a saved game.
+     * @param scroll A value previously returned by getScroll.
+     */
+    public void setScroll(int scroll) {
+        this.scroll = scroll;
+    }
+
+    /**
+     * Returns the brick shown in a cell of the field.
+     * @param row    The row of the cell, 0 being the top row.
+     * @param column The column of the cell.
+     * @return The index of the brick.
+     */
+    public int getBrick(int row, int column) {
+        return toStoredRow(row) * columns + column;
+    }
+
+    /**
+     * Returns the row a brick is shown in.
+     * @param brick The index of the brick.
+     * @return The row of the brick, 0 being the top row.
+     */
+    public int getRow(int brick) {
+        return (brick / columns + scroll) % rows;
+    }
+
+    /**
+     * Returns whether a brick is still in the field.
+     * @param brick The index of the brick.
+     * @return true if the brick was not removed.
+     */
+    public boolean isLive(int brick) {
+        return live.get(brick);
+    }
+
+    /**
+     * Returns the number of bricks still in the field.
+     * @return The number of live bricks.
+     */
+    public int getLiveCount() {
+        return live.cardinality();
+    }
+
+    /**
+     * Returns the first live brick at or after the given index, to iterate over the live bricks.
+     * @param fromBrick The index to start from.
+     * @return The index of the next live brick, or -1 if there is none.
+     */
+    public int nextLive(int fromBrick) {
+        return live.nextSetBit(fromBrick);
+    }
+
+    /**
+     * Copies the set of live bricks into a bitset, without allocating once the bitset is large enough.
+     * @param target The bitset receiving the live bricks; its previous content is cleared.
+     */
+    public void copyLiveTo(BitSet target) {
+        target.clear();
+        target.or(live);
+    }
+
+    /**
+     * Returns the number of bytes writeState writes.
+     * @return The size of the field's state.
+     */
+    public int getStateSize() {
+        return getWordCount() * Long.BYTES + size();
+    }
+
+    /**
+     * Writes the live bricks and the strategy codes of every brick with two bulk copies.
+     * The layout of the bricks is not written, it is rebuilt by fillGrid.
+     * @param buffer The buffer to write to, at its position.
+     */
+    public void writeState(ByteBuffer buffer) {
+        long[] words = live.toLongArray();
+        buffer.asLongBuffer().put(words).put(new long[getWordCount() - words.length]);
+        buffer.position(buffer.position() + getWordCount() * Long.BYTES);
+        buffer.put(strategyCodes);
+    }
+
+    /**
+     * Reads the live bricks and the strategy codes written by writeState, replacing the current ones.
+     * @param buffer The buffer to read from, at its position.
+     */
+    public void readState(ByteBuffer buffer) {
+        long[] words = new long[getWordCount()];
+        buffer.asLongBuffer().get(words);
+        buffer.position(buffer.position() + words.length * Long.BYTES);
+        live.clear();
+        live.or(BitSet.valueOf(words));
+        // the last word may hold bits past the last brick
+        live.clear(size(), words.length * Long.SIZE);
+        buffer.get(strategyCodes);
+        for (int row = 0; row < rows; row++) {
+            rowLiveCounts[row] = live.get(row * columns, (row + 1) * columns).cardinality();
+        }
+        clearedRows = 0;
+    }
+
+    /**
+     * Returns the number of longs holding one bit per cell.
+     * @return The number of words of the live bitset.
+     */
+    private int getWordCount() {
+        return (size() + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    /**
+     * Returns the number of rows of the field.
+     * @return The number of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns of the field.
+     * @return The number of columns.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the horizontal distance between two neighbouring bricks.
+     * @return The width of a cell.
+     */
+    public float getCellWidth() {
+        return cellWidth;
+    }
+
+    /**
+     * Returns the vertical distance between two neighbouring bricks.
+     * @return The height of a cell.
+     */
+    public float getCellHeight() {
+        return cellHeight;
+    }
+
+    /**
+     * Returns the number of cells of the field.
+     * @return rows * columns.
+     */
+    public int size() {
+        return x.length;
+    }
+
+    /**
+     * Returns the x coordinate of a brick's top-left corner.
+     * @param brick The index of the brick.
+     * @return The x coordinate.
+     */
+    public float getX(int brick) {
+        return x[brick];
+    }
+
+    /**
+     * Returns the y coordinate of a brick's top-left corner.
+     * @param brick The index of the brick.
+     * @return The y coordinate.
+     */
+    public float getY(int brick) {
+        return y[brick] + (getRow(brick) - brick / columns) * cellHeight;
+    }
+
+    /**
+     * Returns the width of a brick.
+     * @param brick The index of the brick.
+     * @return The width.
+     */
+    public float getWidth(int brick) {
+        return width[brick];
+    }
+
+    /**
+     * Returns the height of a brick.
+     * @param brick The index of the brick.
+     * @return The height.
+     */
+    public float getHeight(int brick) {
+        return height[brick];
+    }
+
+    /**
+     * Sweeps a moving box through the cells its path overlaps and finds the first live brick it
+     * touches.
+     * @param fromX        The x coordinate of the box's top-left corner at the start of the path.
+     * @param fromY        The y coordinate of the box's top-left corner at the start of the path.
+     * @param toX          The x coordinate of the box's top-left corner at the end of the path.
+     * @param toY          The y coordinate of the box's top-left corner at the end of the path.
+     * @param boxWidth     The width of the box.
+     * @param boxHeight    The height of the box.
+     * @param ignoredBrick A brick to skip, such as the one the box starts on after bouncing off it,
+     *                     or -1.
+     * @return The index of the first brick touched, or -1 if none is; its time of impact, as a
+     * fraction of the path, is then given by getHitTime.
+     */
+    public int sweepFirst(float fromX, float fromY, float toX, float toY, float boxWidth, float boxHeight,
+                          int ignoredBrick) {
+        int firstColumn = Math.max(0, (int) Math.floor((Math.min(fromX, toX) - originX) / cellWidth));
+        int lastColumn = Math.min(columns - 1,
+                (int) Math.floor((Math.max(fromX, toX) + boxWidth - originX) / cellWidth));
+        int firstRow = Math.max(0, (int) Math.floor((Math.min(fromY, toY) - originY) / cellHeight));
+        int lastRow = Math.min(rows - 1,
+                (int) Math.floor((Math.max(fromY, toY) + boxHeight - originY) / cellHeight));
+        int firstHit = -1;
+        hitTime = Float.POSITIVE_INFINITY;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int brick = getBrick(row, column);
+                if (brick != ignoredBrick && live.get(brick)
+                        && sweep(brick, fromX, fromY, toX, toY, boxWidth, boxHeight)
+                        && sweptCollision.getTime() < hitTime) {
+                    firstHit = brick;
+                    hitTime = sweptCollision.getTime();
+                }
+            }
+        }
+        return firstHit;
+    }
+
+    /**
+     * Returns the time of impact of the brick found by the last sweepFirst.
+     * @return The fraction of the swept path at which the box first touches the brick.
+     */
+    public float getHitTime() {
+        return hitTime;
+    }
+
+    /**
+     * Fires the strategy of a brick a ball hit.
+     * @param brick The index of the brick.
+     * @param ball  The ball that hit it.
+     */
+    public void hit(int brick, Ball ball) {
+        strategy.onCollision(this, brick, ball);
+    }
+
+    /**
+     * Sweeps a moving box against a brick.
+     * @param brick      The index of the brick.
+     * @param fromX      The x coordinate of the box at the start of the path.
+     * @param fromY      The y coordinate of the box at the start of the path.
+     * @param toX        The x coordinate of the box at the end of the path.
+     * @param toY        The y coordinate of the box at the end of the path.
+     * @param boxWidth   The width of the box.
+     * @param boxHeight  The height of the box.
+     * @return true if the box touches the brick along the path.
+     */
+    private boolean sweep(int brick, float fromX, float fromY, float toX, float toY,
+                          float boxWidth, float boxHeight) {
+        return sweptCollision.sweep(fromX, fromY, toX, toY, boxWidth, boxHeight,
+                x[brick], getY(brick), width[brick], height[brick]);
+    }
+
+    /**
+     * Returns the stored row shown in a row of the field.
+     * @param row The row of the field, 0 being the top row.
+     * @return The stored row.
+     */
+    private int toStoredRow(int row) {
+        return (row - scroll + rows) % rows;
+    }
+}
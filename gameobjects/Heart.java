@@ -42,30 +42,29 @@ public class Heart extends GameObject {
 
     /**
      * Called when a collision occurs with this GameObject.
-     * This method will add a heart to the lives collection, update the life numeric counter,
-     * and remove this object from the game.
+     * The heart is collected: the player gains a life and this object returns to the falling
+     * hearts pool.
      * @param other The GameObject this object collided with.
      * @param collision The collision information.
      */
     @Override
     public void onCollisionEnter(GameObject other, Collision collision) {
         super.onCollisionEnter(other, collision);
-        brickerGameManager.addHeartToLivesCollection();
-        brickerGameManager.updateLifeNumericCounter();
-        brickerGameManager.removeObjectFromGameObject(this);
+        brickerGameManager.collectFallingHeart(this);
     }
 
     /**
      * Updates the state of this GameObject. Called once per frame.
      * This method checks if the object has moved beyond the bottom boundary of the window,
-     * and if so, removes the object from the game.
+     * and if so, returns the object to the falling hearts pool.
      * @param deltaTime The time in seconds since the last update.
      */
     @Override
     public void update(float deltaTime) {
         super.update(deltaTime);
-        if (this.getCenter().y() > brickerGameManager.getWindowDimensions().y()){
-            brickerGameManager.removeObjectFromGameObject(this);
+        float centerY = this.getTopLeftCorner().y() + getDimensions().y() / 2;
+        if (centerY > brickerGameManager.getWindowDimensions().y()){
+            brickerGameManager.reclaimFallingHeart(this);
         }
     }
 }
@@ -0,0 +1,40 @@
+package bricker.gameobjects;
+
+/**
+ * KeyInput is the source of the keys that drive a paddle. In a windowed game it is backed
+ * by the engine's UserInputListener, while headless games plug in scripted or recorded input.
+ * @author Batia
+ */
+@FunctionalInterface
+public interface KeyInput {
+    /**
+     * A KeyInput on which no key is ever pressed.
+     */
+    KeyInput IDLE = keyCode -> false;
+
+    /**
+     * Returns whether the given key is currently pressed.
+     * @param keyCode The key code, as defined in java.awt.event.KeyEvent.
+     * @return true if the key is pressed, false otherwise.
+     */
+    boolean isKeyPressed(int keyCode);
+
+    /**
+     * Returns whether the given key is currently pressed for a specific paddle. Inputs that drive
+     * every paddle separately, like an autopilot, override it; by default all paddles see the
+     * same keys.
+     * @param paddle  The paddle polling its keys.
+     * @param keyCode The key code, as defined in java.awt.event.KeyEvent.
+     * @return true if the key is pressed for this paddle, false otherwise.
+     */
+    default boolean isKeyPressed(Paddle paddle, int keyCode) {
+        return isKeyPressed(keyCode);
+    }
+
+    /**
+     * Called by the game manager once at the start of every frame, before the paddles poll
+     * their keys. Inputs that sample, record or replay keys per frame advance here.
+     */
+    default void beginFrame() {
+    }
+}
@@ -1,21 +1,35 @@
 package bricker.gameobjects;
 
+import bricker.main.EffectScheduler;
+import bricker.main.EffectTarget;
 import danogl.GameObject;
-import danogl.gui.UserInputListener;
+import danogl.collisions.Collision;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 import java.awt.event.KeyEvent;
 
 /**
- * This class represents a paddle in the game.
+ * This class represents a paddle in the game. Widen and narrow effects change its width in
+ * steps, and every ball hitting it counts as a hit for the effects on it.
  * @author Batia
  */
-public class Paddle extends GameObject {
+public class Paddle extends GameObject implements EffectTarget {
     private static final int MOVEMENT_SPEED = 300;
-    private static final float PADDLE_SIZE = 100;
-    private final Vector2 topLeftCorner;
-    private final UserInputListener inputListener;
+    private static final float WIDTH_STEP_FACTOR = 1.25f;
+    private static final int MIN_WIDTH_STEPS = -2;
+    private static final int MAX_WIDTH_STEPS = 3;
+    // velocities are precomputed so a frame of steady play allocates nothing
+    private static final Vector2 LEFT_VELOCITY = Vector2.LEFT.mult(MOVEMENT_SPEED);
+    private static final Vector2 RIGHT_VELOCITY = Vector2.RIGHT.mult(MOVEMENT_SPEED);
+    private final KeyInput inputListener;
     private final Vector2 windowDimension;
+    private final float baseWidth;
+    private int widthSteps = 0;
+    private EffectScheduler effectScheduler;
+    private int effectHead = EffectScheduler.NONE;
+    private Vector2 currentVelocity = Vector2.ZERO;
+    private Vector2 leftmostCorner;
+    private Vector2 rightmostCorner;
 
     /**
      * Construct a new GameObject instance.
@@ -24,14 +38,28 @@ public class Paddle extends GameObject {
      * @param dimensions    Width and height in window coordinates.
      * @param renderable    The renderable representing the object. Can be null, in which case
      *                      the GameObject will not be rendered.
+     * @param inputListener Keyboard input driving the paddle.
+     * @param windowDimension The dimensions of the game window.
      */
     public Paddle(Vector2 topLeftCorner, Vector2 dimensions,
-                  Renderable renderable, UserInputListener inputListener, Vector2 windowDimension) {
+                  Renderable renderable, KeyInput inputListener, Vector2 windowDimension) {
         super(topLeftCorner, dimensions, renderable);
-        this.topLeftCorner = topLeftCorner;
         this.inputListener = inputListener;
         this.windowDimension = windowDimension;
+        this.baseWidth = dimensions.x();
+    }
 
+    /**
+     * Counts a ball hitting the paddle as a hit for the effects on the paddle.
+     * @param other     The other GameObject involved in the collision.
+     * @param collision Information about the collision.
+     */
+    @Override
+    public void onCollisionEnter(GameObject other, Collision collision) {
+        super.onCollisionEnter(other, collision);
+        if (other instanceof Ball && effectScheduler != null && effectHead != EffectScheduler.NONE) {
+            effectScheduler.hit(this);
+        }
     }
 
     /**
@@ -43,24 +71,112 @@ public class Paddle extends GameObject {
     @Override
     public void update(float deltaTime) {
         super.update(deltaTime);
+        boolean left = inputListener.isKeyPressed(this, KeyEvent.VK_LEFT);
+        boolean right = inputListener.isKeyPressed(this, KeyEvent.VK_RIGHT);
         Vector2 movementDir = Vector2.ZERO;
-        if (inputListener.isKeyPressed(KeyEvent.VK_LEFT)){
-            movementDir = movementDir.add(Vector2.LEFT.mult(MOVEMENT_SPEED));
+        if (left && !right){
+            movementDir = LEFT_VELOCITY;
+        } else if (right && !left){
+            movementDir = RIGHT_VELOCITY;
         }
-        if (inputListener.isKeyPressed(KeyEvent.VK_RIGHT)){
-            movementDir = movementDir.add(Vector2.RIGHT.mult(MOVEMENT_SPEED));
+        if (movementDir != currentVelocity) {
+            setVelocity(movementDir);
         }
-        setVelocity(movementDir);
 
-        if (this.getTopLeftCorner().x() <= 0){
-            this.setTopLeftCorner(new Vector2(0, topLeftCorner.y()));
+        Vector2 corner = this.getTopLeftCorner();
+        if (corner.x() < 0){
+            this.setTopLeftCorner(getLeftmostCorner(corner.y()));
+        } else if (corner.x() > windowDimension.x() - getDimensions().x()){
+            this.setTopLeftCorner(getRightmostCorner(corner.y()));
         }
-        if (this.getTopLeftCorner().x() >= windowDimension.x() - PADDLE_SIZE){
-            this.setTopLeftCorner(
-                    new Vector2(windowDimension.x() - PADDLE_SIZE, topLeftCorner.y()));
+    }
+
+    /**
+     * Sets the velocity of the paddle, keeping track of it so update only sets a new velocity
+     * when the keys change.
+     * @param velocity The new velocity.
+     */
+    @Override
+    public void setVelocity(Vector2 velocity) {
+        super.setVelocity(velocity);
+        currentVelocity = velocity;
+    }
+
+    /**
+     * Returns the leftmost position of the paddle at the given height, created once per height.
+     * @param y The height of the paddle.
+     * @return The leftmost top-left corner.
+     */
+    private Vector2 getLeftmostCorner(float y) {
+        if (leftmostCorner == null || leftmostCorner.y() != y) {
+            leftmostCorner = new Vector2(0, y);
         }
+        return leftmostCorner;
     }
 
-}
+    /**
+     * Returns the rightmost position of the paddle at the given height, created once per height
+     * and width.
+     * @param y The height of the paddle.
+     * @return The rightmost top-left corner.
+     */
+    private Vector2 getRightmostCorner(float y) {
+        float x = windowDimension.x() - getDimensions().x();
+        if (rightmostCorner == null || rightmostCorner.y() != y || rightmostCorner.x() != x) {
+            rightmostCorner = new Vector2(x, y);
+        }
+        return rightmostCorner;
+    }
 
+    /**
+     * Returns how many steps wider than its original width the paddle is, negative if narrower.
+     * @return The width steps.
+     */
+    public int getWidthSteps() {
+        return widthSteps;
+    }
+
+    /**
+     * Sets how many steps wider than its original width the paddle is. Widen and narrow effects
+     * stack by adding up; the width only follows within a few steps either way, and the paddle
+     * keeps its center.
+     * @param widthSteps The width steps, negative for a narrower paddle.
+     */
+    public void setWidthSteps(int widthSteps) {
+        this.widthSteps = widthSteps;
+        int clamped = Math.max(MIN_WIDTH_STEPS, Math.min(MAX_WIDTH_STEPS, widthSteps));
+        float width = baseWidth * (float) Math.pow(WIDTH_STEP_FACTOR, clamped);
+        Vector2 dimensions = getDimensions();
+        if (width != dimensions.x()) {
+            Vector2 corner = getTopLeftCorner();
+            setTopLeftCorner(new Vector2(corner.x() + (dimensions.x() - width) / 2, corner.y()));
+            setDimensions(new Vector2(width, dimensions.y()));
+        }
+    }
+
+    /**
+     * Sets the scheduler of the effects on the paddle, which the paddle tells of the balls hitting it.
+     * @param effectScheduler The effect scheduler of the game.
+     */
+    public void setEffectScheduler(EffectScheduler effectScheduler) {
+        this.effectScheduler = effectScheduler;
+    }
 
+    /**
+     * Returns the first effect on the paddle.
+     * @return The scheduler's index of the effect, EffectScheduler.NONE if there is none.
+     */
+    @Override
+    public int getEffectHead() {
+        return effectHead;
+    }
+
+    /**
+     * Sets the first effect on the paddle. Only called by the EffectScheduler.
+     * @param effectHead The scheduler's index of the effect, EffectScheduler.NONE if there is none.
+     */
+    @Override
+    public void setEffectHead(int effectHead) {
+        this.effectHead = effectHead;
+    }
+}
@@ -0,0 +1,123 @@
+package bricker.main;
+
+import danogl.gui.ImageReader;
+import danogl.gui.Sound;
+import danogl.gui.SoundReader;
+import danogl.gui.rendering.Renderable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * AssetCache decodes every image and sound of the game at most once and hands out
+ * the same shared Renderable/Sound instance to every caller asking for the same asset.
+ * Images are keyed by their path and top-left transparency flag, sounds by their path.
+ * The cache is not thread safe and is meant to be owned by a single game manager.
+ * A silent cache, used by headless games, has no readers and returns null for every asset.
+ * @author Batia
+ */
+public class AssetCache {
+    private static final char KEY_SEPARATOR = '|';
+    private final ImageReader imageReader;
+    private final SoundReader soundReader;
+    private final Map<String, Renderable> images = new HashMap<>();
+    private final Map<String, Sound> sounds = new HashMap<>();
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * Constructs a new AssetCache on top of the engine readers.
+     * @param imageReader Reader used to decode images that are not cached yet.
+     * @param soundReader Reader used to decode sounds that are not cached yet.
+     */
+    public AssetCache(ImageReader imageReader, SoundReader soundReader) {
+        this.imageReader = imageReader;
+        this.soundReader = soundReader;
+    }
+
+    /**
+     * Creates a cache for headless games that never touches the disk: every image is a
+     * null renderable and every sound is silent.
+     * @return A silent AssetCache.
+     */
+    public static AssetCache silent() {
+        return new AssetCache(null, null);
+    }
+
+    /**
+     * Returns the shared Renderable for the given image, decoding it on first use.
+     * @param path Path of the image file.
+     * @param topLeftTransparency Whether the top-left pixel color is used as transparency.
+     * @return The shared Renderable of the image, or null if the cache is silent.
+     */
+    public Renderable readImage(String path, boolean topLeftTransparency) {
+        if (imageReader == null) {
+            return null;
+        }
+        String key = path + KEY_SEPARATOR + topLeftTransparency;
+        Renderable image = images.get(key);
+        if (image != null) {
+            hits++;
+            return image;
+        }
+        misses++;
+        image = imageReader.readImage(path, topLeftTransparency);
+        images.put(key, image);
+        return image;
+    }
+
+    /**
+     * Returns the shared Sound for the given wav file, decoding it on first use.
+     * @param path Path of the sound file.
+     * @return The shared Sound, or null if the cache is silent.
+     */
+    public Sound readSound(String path) {
+        if (soundReader == null) {
+            return null;
+        }
+        Sound sound = sounds.get(path);
+        if (sound != null) {
+            hits++;
+            return sound;
+        }
+        misses++;
+        sound = soundReader.readSound(path);
+        sounds.put(path, sound);
+        return sound;
+    }
+
+    /**
+     * Drops every cached asset, so the next read of each path decodes it again.
+     * Hit and miss counters are kept.
+     */
+    public void invalidate() {
+        images.clear();
+        sounds.clear();
+    }
+
+    /**
+     * Drops the cached image (with both transparency flags) and sound of a single path.
+     * @param path Path of the asset to drop.
+     */
+    public void invalidate(String path) {
+        images.remove(path + KEY_SEPARATOR + true);
+        images.remove(path + KEY_SEPARATOR + false);
+        sounds.remove(path);
+    }
+
+    /**
+     * Returns the number of reads that were served from the cache.
+     * @return The hit counter.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of reads that had to decode the asset.
+     * @return The miss counter.
+     */
+    public long getMisses() {
+        return misses;
+    }
+}
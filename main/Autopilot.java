@@ -0,0 +1,243 @@
+package bricker.main;
+
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.KeyInput;
+import bricker.gameobjects.Paddle;
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.awt.event.KeyEvent;
+import java.util.Arrays;
+
+/**
+ * Autopilot drives the paddles of a game without human input. For every paddle it predicts
+ * where the ball and the pucks will cross the paddle's line, by unfolding their reflections off
+ * the side walls and the ceiling in closed form, and moves the paddle under the one arriving
+ * first. No shadow simulation is stepped, so a decision costs a few arithmetic operations per
+ * ball. Bricks are ignored by the prediction, which is corrected as the balls bounce.
+ * <p>
+ * Its skill is tunable: the reaction delay is how long the autopilot keeps chasing a target
+ * before it looks at the balls again, and the aim error is the largest distance between the
+ * point it chases and the predicted crossing point, drawn again every time it starts chasing
+ * another ball or the ball it chases bounces off a paddle or the ceiling. GOOD and BAD presets come with their own
+ * paddle images. The error is drawn from the autopilot's own seeded generator, so headless games
+ * driven by an autopilot stay deterministic.
+ * @author Batia
+ */
+public class Autopilot implements KeyInput {
+    private static final String GOOD_IMG_PATH = "assets/botGood.png";
+    private static final String BAD_IMG_PATH = "assets/botBad.png";
+    private static final float GOOD_REACTION_DELAY = 0;
+    private static final float GOOD_AIM_ERROR = 8;
+    private static final float BAD_REACTION_DELAY = 0.4f;
+    private static final float BAD_AIM_ERROR = 70;
+    private static final float DEAD_ZONE = 4;
+    private static final int MAIN_PADDLE = 0;
+    private static final int EXTRA_PADDLE = 1;
+    private static final int PADDLES = 2;
+    private final float reactionDelay;
+    private final float aimError;
+    private final String imagePath;
+    private final GameRandom random;
+    private BrickerGameManager manager;
+    private long frame = 0;
+    // per paddle: the point chased, when it was chosen and the frame of the last decision
+    private final float[] targetX = new float[PADDLES];
+    private final long[] targetFrame = new long[PADDLES];
+    private final long[] decisionFrame = new long[PADDLES];
+    private final boolean[] movingLeft = new boolean[PADDLES];
+    private final boolean[] movingRight = new boolean[PADDLES];
+    private final boolean[] hasTarget = new boolean[PADDLES];
+    // per paddle: the ball chased, whether it was falling and the aim error drawn for it
+    private final Ball[] aimedBall = new Ball[PADDLES];
+    private final boolean[] aimedFalling = new boolean[PADDLES];
+    private final float[] aimOffset = new float[PADDLES];
+    // the ball chosen by the last chooseTarget call
+    private Ball chosenBall;
+    // the prediction of the last predictCrossing call
+    private float predictedTime;
+    private float predictedX;
+
+    /**
+     * Constructs a new autopilot.
+     * @param reactionDelay The time in seconds a target is chased before the balls are looked at again.
+     * @param aimError      The largest distance, in pixels, between the point chased and the
+     *                      predicted crossing point.
+     * @param imagePath     The image of a paddle driven by this autopilot.
+     * @param seed          The seed of the aim error.
+     */
+    public Autopilot(float reactionDelay, float aimError, String imagePath, long seed) {
+        this.reactionDelay = reactionDelay;
+        this.aimError = aimError;
+        this.imagePath = imagePath;
+        this.random = new GameRandom(seed);
+    }
+
+    /**
+     * Creates an autopilot that reacts at once and rarely misses.
+     * @param seed The seed of the aim error.
+     * @return The good autopilot.
+     */
+    public static Autopilot good(long seed) {
+        return new Autopilot(GOOD_REACTION_DELAY, GOOD_AIM_ERROR, GOOD_IMG_PATH, seed);
+    }
+
+    /**
+     * Creates an autopilot that reacts late and often misses.
+     * @param seed The seed of the aim error.
+     * @return The bad autopilot.
+     */
+    public static Autopilot bad(long seed) {
+        return new Autopilot(BAD_REACTION_DELAY, BAD_AIM_ERROR, BAD_IMG_PATH, seed);
+    }
+
+    /**
+     * Attaches the autopilot to the game whose paddles it drives.
+     * @param manager The game manager of the game.
+     */
+    public void attach(BrickerGameManager manager) {
+        this.manager = manager;
+        Arrays.fill(hasTarget, false);
+        Arrays.fill(aimedBall, null);
+    }
+
+    /**
+     * Returns the image of a paddle driven by this autopilot.
+     * @return The path of the image.
+     */
+    public String getImagePath() {
+        return imagePath;
+    }
+
+    /**
+     * Advances the autopilot's clock by one frame.
+     */
+    @Override
+    public void beginFrame() {
+        frame++;
+    }
+
+    /**
+     * Returns the keys of the main paddle, for callers that do not tell which paddle asks.
+     * @param keyCode The key code, as defined in java.awt.event.KeyEvent.
+     * @return true if the autopilot presses the given key for the main paddle.
+     */
+    @Override
+    public boolean isKeyPressed(int keyCode) {
+        return manager != null && isKeyPressed(manager.getMainPaddle(), keyCode);
+    }
+
+    /**
+     * Presses left or right to move the given paddle towards the point it chases.
+     * @param paddle  The paddle polling its keys.
+     * @param keyCode The key code, as defined in java.awt.event.KeyEvent.
+     * @return true if the autopilot presses the given key for this paddle.
+     */
+    @Override
+    public boolean isKeyPressed(Paddle paddle, int keyCode) {
+        if (manager == null || paddle == null || manager.getBall() == null) {
+            return false;
+        }
+        int slot = paddle == manager.getMainPaddle() ? MAIN_PADDLE : EXTRA_PADDLE;
+        if (decisionFrame[slot] != frame || !hasTarget[slot]) {
+            decide(slot, paddle);
+        }
+        if (keyCode == KeyEvent.VK_LEFT) {
+            return movingLeft[slot];
+        }
+        if (keyCode == KeyEvent.VK_RIGHT) {
+            return movingRight[slot];
+        }
+        return false;
+    }
+
+    /**
+     * Decides this frame's keys of a paddle, choosing a new target once the reaction delay passed.
+     * @param slot   MAIN_PADDLE or EXTRA_PADDLE.
+     * @param paddle The paddle.
+     */
+    private void decide(int slot, Paddle paddle) {
+        decisionFrame[slot] = frame;
+        if (!hasTarget[slot] || (frame - targetFrame[slot]) * manager.getFixedStep() >= reactionDelay) {
+            float predicted = chooseTarget(paddle);
+            boolean falling = chosenBall.getVelocity().y() > 0;
+            if (chosenBall != aimedBall[slot] || falling != aimedFalling[slot]) {
+                aimedBall[slot] = chosenBall;
+                aimedFalling[slot] = falling;
+                aimOffset[slot] = (float) (random.nextDouble() * 2 - 1) * aimError;
+            }
+            targetX[slot] = predicted + aimOffset[slot];
+            targetFrame[slot] = frame;
+            hasTarget[slot] = true;
+        }
+        float offset = targetX[slot] - (paddle.getTopLeftCorner().x() + paddle.getDimensions().x() / 2);
+        movingLeft[slot] = offset < -DEAD_ZONE;
+        movingRight[slot] = offset > DEAD_ZONE;
+    }
+
+    /**
+     * Chooses the ball or puck reaching a paddle's line first, and stores it in chosenBall.
+     * If none is on its way, the main ball is chosen and followed.
+     * @param paddle The paddle.
+     * @return The predicted crossing point of the chosen ball.
+     */
+    private float chooseTarget(Paddle paddle) {
+        float lineY = paddle.getTopLeftCorner().y();
+        Ball ball = manager.getBall();
+        float bestTime = Float.POSITIVE_INFINITY;
+        float bestX = centerX(ball);
+        chosenBall = ball;
+        if (predictCrossing(ball, lineY)) {
+            bestTime = predictedTime;
+            bestX = predictedX;
+        }
+        GameObjectPool<Ball> pucks = manager.getPucks();
+        for (int i = 0; i < pucks.getLiveCount(); i++) {
+            if (predictCrossing(pucks.getLive(i), lineY) && predictedTime < bestTime) {
+                bestTime = predictedTime;
+                bestX = predictedX;
+                chosenBall = pucks.getLive(i);
+            }
+        }
+        return bestX;
+    }
+
+    /**
+     * Predicts when and where a ball's center crosses a horizontal line, unfolding its
+     * reflections off the side walls and, for a rising ball, off the ceiling.
+     * The prediction is stored in predictedTime and predictedX.
+     * @param ball  The ball.
+     * @param lineY The y coordinate of the line.
+     * @return true if the ball reaches the line, false if it is below it or not moving vertically.
+     */
+    private boolean predictCrossing(Ball ball, float lineY) {
+        Vector2 topLeftCorner = ball.getTopLeftCorner();
+        Vector2 velocity = ball.getVelocity();
+        Vector2 dimensions = ball.getDimensions();
+        float bottom = topLeftCorner.y() + dimensions.y();
+        if (bottom > lineY || velocity.y() == 0) {
+            return false;
+        }
+        float wallWidth = manager.getWallWidth();
+        // vertical distance travelled, through the ceiling and back down for a rising ball
+        float distance = velocity.y() > 0 ? lineY - bottom
+                : (topLeftCorner.y() - wallWidth) + (lineY - dimensions.y() - wallWidth);
+        predictedTime = distance / Math.abs(velocity.y());
+        float minX = wallWidth;
+        float span = manager.getWindowDimensions().x() - dimensions.x() - minX;
+        float unfolded = topLeftCorner.x() + velocity.x() * predictedTime - minX;
+        float period = 2 * span;
+        float phase = span <= 0 ? 0 : ((unfolded % period) + period) % period;
+        predictedX = minX + (phase <= span ? phase : period - phase) + dimensions.x() / 2;
+        return true;
+    }
+
+    /**
+     * Returns the x coordinate of the center of an object, without allocating a Vector2.
+     * @param object The object.
+     * @return The x coordinate of its center.
+     */
+    private static float centerX(GameObject object) {
+        return object.getTopLeftCorner().x() + object.getDimensions().x() / 2;
+    }
+}
@@ -0,0 +1,164 @@
+package bricker.main;
+
+import bricker.brick_strategies.StrategyType;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * BalanceSimulator plays many headless games in parallel on a fork/join pool to measure how
+ * the strategy mix of CollisionStrategyFactory affects the game. Every game has its own seed
+ * and a scripted paddle. Per-game results are written to a CSV file and the aggregate
+ * win rate, frames to clear, lives lost and power-up counts are printed.
+ * @author Batia
+ */
+public class BalanceSimulator {
+    private static final int GAMES_ARG = 0;
+    private static final int CSV_PATH_ARG = 1;
+    private static final int BRICK_LINES_ARG = 2;
+    private static final int BRICKS_PER_LINE_ARG = 3;
+    private static final int BASE_SEED_ARG = 4;
+    private static final int DEFAULT_GAMES = 10000;
+    private static final String DEFAULT_CSV_PATH = "balance.csv";
+    private static final int DEFAULT_BRICK_LINES = 7;
+    private static final int DEFAULT_BRICKS_PER_LINE = 8;
+    private static final int MAX_FRAMES = 120 * 60 * 10;
+    private static final StrategyType[] STRATEGY_TYPES = StrategyType.values();
+    private final int games;
+    private final int brickLines;
+    private final int bricksPerLine;
+    private final long baseSeed;
+    // per-game results, each slot written by a single worker
+    private final boolean[] won;
+    private final int[] frames;
+    private final int[] livesLost;
+    private final long[][] strategyCounts;
+    // aggregates, updated concurrently by all workers
+    private final LongAdder wins = new LongAdder();
+    private final LongAdder framesToClear = new LongAdder();
+    private final LongAdder totalLivesLost = new LongAdder();
+    private final LongAdder[] totalStrategyCounts = new LongAdder[STRATEGY_TYPES.length];
+
+    /**
+     * Constructs a new simulator.
+     * @param games         The number of games to play.
+     * @param brickLines    The number of rows of bricks in every game.
+     * @param bricksPerLine The number of bricks in each row.
+     * @param baseSeed      The seed of the first game; game i uses baseSeed + i.
+     */
+    public BalanceSimulator(int games, int brickLines, int bricksPerLine, long baseSeed) {
+        this.games = games;
+        this.brickLines = brickLines;
+        this.bricksPerLine = bricksPerLine;
+        this.baseSeed = baseSeed;
+        this.won = new boolean[games];
+        this.frames = new int[games];
+        this.livesLost = new int[games];
+        this.strategyCounts = new long[games][STRATEGY_TYPES.length];
+        for (int i = 0; i < totalStrategyCounts.length; i++) {
+            totalStrategyCounts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Plays all games on the given fork/join pool and waits for them to finish.
+     * @param pool The pool running the games.
+     */
+    public void run(ForkJoinPool pool) {
+        pool.submit(() -> IntStream.range(0, games).parallel().forEach(this::playGame)).join();
+    }
+
+    /**
+     * Plays a single game and records its results.
+     * @param game The index of the game.
+     */
+    private void playGame(int game) {
+        ScriptedPaddlePolicy policy = new ScriptedPaddlePolicy();
+        HeadlessGame headlessGame = new HeadlessGame(brickLines, bricksPerLine, baseSeed + game, policy);
+        BrickerGameManager manager = headlessGame.getManager();
+        policy.attach(manager);
+        boolean gameWon = headlessGame.play(MAX_FRAMES);
+        won[game] = gameWon;
+        frames[game] = headlessGame.getFrames();
+        livesLost[game] = manager.getLivesLost();
+        if (gameWon) {
+            wins.increment();
+            framesToClear.add(headlessGame.getFrames());
+        }
+        totalLivesLost.add(manager.getLivesLost());
+        for (StrategyType type : STRATEGY_TYPES) {
+            long count = manager.getStrategyCount(type);
+            strategyCounts[game][type.ordinal()] = count;
+            totalStrategyCounts[type.ordinal()].add(count);
+        }
+    }
+
+    /**
+     * Writes one CSV line per game.
+     * @param path The path of the CSV file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void writeCsv(Path path) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(path))) {
+            StringBuilder header = new StringBuilder("game,seed,won,frames,lives_lost");
+            for (StrategyType type : STRATEGY_TYPES) {
+                header.append(',').append(type.name().toLowerCase());
+            }
+            writer.println(header);
+            for (int game = 0; game < games; game++) {
+                StringBuilder line = new StringBuilder();
+                line.append(game).append(',').append(baseSeed + game).append(',').append(won[game])
+                        .append(',').append(frames[game]).append(',').append(livesLost[game]);
+                for (long count : strategyCounts[game]) {
+                    line.append(',').append(count);
+                }
+                writer.println(line);
+            }
+        }
+    }
+
+    /**
+     * Prints the aggregated results.
+     */
+    public void printSummary() {
+        long winCount = wins.sum();
+        System.out.printf("games: %d, win rate: %.3f, mean frames to clear: %.1f, mean lives lost: %.2f%n",
+                games, (double) winCount / games,
+                winCount == 0 ? 0.0 : (double) framesToClear.sum() / winCount,
+                (double) totalLivesLost.sum() / games);
+        for (StrategyType type : STRATEGY_TYPES) {
+            System.out.printf("%s: %.2f per game%n", type.name().toLowerCase(),
+                    (double) totalStrategyCounts[type.ordinal()].sum() / games);
+        }
+    }
+
+    /**
+     * Runs the simulator on all cores.
+     * @param args Number of games, CSV path, number of brick lines, bricks per line and base seed.
+     * @throws IOException If the CSV file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        int games = args.length > GAMES_ARG ? Integer.parseInt(args[GAMES_ARG]) : DEFAULT_GAMES;
+        String csvPath = args.length > CSV_PATH_ARG ? args[CSV_PATH_ARG] : DEFAULT_CSV_PATH;
+        int brickLines = args.length > BRICK_LINES_ARG ?
+                Integer.parseInt(args[BRICK_LINES_ARG]) : DEFAULT_BRICK_LINES;
+        int bricksPerLine = args.length > BRICKS_PER_LINE_ARG ?
+                Integer.parseInt(args[BRICKS_PER_LINE_ARG]) : DEFAULT_BRICKS_PER_LINE;
+        long baseSeed = args.length > BASE_SEED_ARG ? Long.parseLong(args[BASE_SEED_ARG]) : 0;
+        BalanceSimulator simulator = new BalanceSimulator(games, brickLines, bricksPerLine, baseSeed);
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            simulator.run(pool);
+        } finally {
+            pool.shutdown();
+        }
+        simulator.writeCsv(Paths.get(csvPath));
+        simulator.printSummary();
+    }
+}
@@ -12,7 +12,17 @@ import bricker.brick_strategies.*;
 import bricker.gameobjects.*;
 
 import java.awt.*;
-import java.util.Random;
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * BrickerGameManager is the bricker.main game manager class for the Bricker game.
@@ -25,10 +35,30 @@ public class BrickerGameManager extends GameManager {
     private final static String HEART_IMG_PATH = "assets/heart.png";
     private final static String PADDLE_IMG_PATH = "assets/paddle.png";
     private final static String BRICK_IMG_PATH = "assets/brick.png";
+    private final static String PUCK_IMG_PATH = "assets/mockBall.png";
+    private final static String TURBO_IMG_PATH = "assets/redball.png";
     private final static String BACKGROUND_IMG_PATH = "assets/DARK_BG2_small.jpeg";
     private final static int USER_ARGS = 2;
     private final static int BRICK_LINES_NUM_ARG = 0;
     private final static int BRICKS_PER_LINE_ARG = 1;
+    private final static int SEED_ARG = 2;
+    private final static String RECORD_FLAG = "--record";
+    private final static String REPLAY_FLAG = "--replay";
+    private final static String METRICS_FLAG = "--metrics";
+    private final static long METRICS_EXPORT_PERIOD_MILLIS = 1000;
+    private final static String RATE_FLAG = "--rate";
+    private final static String SPECTATE_FLAG = "--spectate";
+    private final static String LEVEL_FLAG = "--level";
+    private final static String ENDLESS_FLAG = "--endless";
+    private final static String BOT_FLAG = "--bot";
+    private final static String SAVE_FLAG = "--save";
+    private final static String LOAD_FLAG = "--load";
+    private final static int SAVE_KEY = KeyEvent.VK_S;
+    private final static String GOOD_BOT = "good";
+    private final static int DEFAULT_SIMULATION_RATE = 120;
+    private final static float MAX_FRAME_TIME = 0.25f;
+    private final static int MAX_STEPS_PER_FRAME = 8;
+    private final static int MAX_SWEEPS_PER_TICK = 4;
     private final static int DEFAULT_LIVES_NUM = 3;
     private final static int DEFAULT_BRICK_LINES_NUM = 7;
     private final static int DEFAULT_BRICKS_PER_LINE = 8;
@@ -44,8 +74,27 @@ public class BrickerGameManager extends GameManager {
     private final static int WINDOW_HEIGHT = 500;
     private final static int WINDOW_WIDTH = 700;
     private final static int NUMERIC_LIFE_DIMENSIONS = 20;
+    private final static String WINDOW_TITLE = "Bricker";
     private final static int BALL_DIMENSIONS = 20;
     private final static int PADDLE_DIMENSIONS = 100;
+    private final static int PADDLE_LEN = 15;
+    private final static int PUCK_SIZE = 15;
+    private final static String PUCK_TAG = "Puck";
+    private final static int PREALLOCATED_PUCKS = 8;
+    private final static int PREALLOCATED_HEARTS = 4;
+    private final static int PREALLOCATED_EXTRA_PADDLES = 1;
+    private final static int SNAPSHOT_FIXED_BYTES = 4 * Long.BYTES + 4 * Integer.BYTES + 1;
+    private final static int SNAPSHOT_PADDLE_BYTES = 2 * Float.BYTES + 1 + Integer.BYTES;
+    private final static int SNAPSHOT_BALL_BYTES = 6 * Float.BYTES + 1;
+    private final static int SNAPSHOT_HEART_BYTES = 4 * Float.BYTES;
+    private final static float TURBO_SPEED_FACTOR = 1.4f;
+    private final static float SLOW_SPEED_FACTOR = 0.7f;
+    private final static float QUICKEN_SPEED_FACTOR = 1.3f;
+    private final static float GRAVITY_ACCELERATION = 150;
+    private final static int EFFECT_TARGET_BALL = 0;
+    private final static int EFFECT_TARGET_PADDLE = 1;
+    private final static int EFFECT_TARGET_EXTRA_PADDLE = 2;
+    private final static int EFFECT_TARGET_FIRST_PUCK = 3;
     // BrickGameManager fields
     private Paddle paddle;
     private AdditionalPaddle extraPaddle;
@@ -53,30 +102,137 @@ public class BrickerGameManager extends GameManager {
     private final Heart[] hearts = new Heart[4];
     private final int brickLines;
     private final int bricksPerLine;
-    private static Vector2 windowDimensions;
-    private ImageReader imageReader;
-    private SoundReader soundReader;
-    private UserInputListener inputLister;
-    private static WindowController windowController;
-    private static int livesLeft;
+    private LevelFile level;
+    private boolean endless = false;
+    private CollisionStrategyFactory strategyFactory;
+    private Vector2 windowDimensions;
+    private final Vector2 initialWindowDimensions;
+    private AssetCache assetCache;
+    private SoundDispatcher soundDispatcher;
+    private KeyInput inputLister;
+    private UserInputListener userInput;
+    private Path savePath;
+    private Path loadPath;
+    private boolean saveKeyDown = false;
+    private WindowController windowController;
+    private GameEndListener gameEndListener;
+    private boolean gameOver;
+    private int livesLeft;
+    private int livesLost;
     private int bricksLeft;
+    private final long seed;
+    private final GameRandom rootRandom;
+    private InputRecorder inputRecorder;
+    private InputReplay inputReplay;
+    private Autopilot autopilot;
+    private SpectatorFeed spectatorFeed;
+    private GameRandom boardRandom;
+    private GameRandom launchRandom;
+    private GameRandom puckRandom;
+    private final long[] strategyCounts = new long[StrategyType.values().length];
     private TextRenderable lifeNumericCounter;
+    private GameObjectPool<Ball> puckPool;
+    private GameObjectPool<Heart> fallingHeartPool;
+    private GameObjectPool<AdditionalPaddle> extraPaddlePool;
+    private BrickField brickField;
+    private StaticLayer staticLayer;
+    private final GameObject[] walls = new GameObject[3];
+    private final SweptCollision sweptCollision = new SweptCollision();
+    private final RenderInterpolator renderInterpolator = new RenderInterpolator();
+    private final WorldCommands worldCommands = new WorldCommands();
+    private EffectScheduler effectScheduler;
+    private int simulationRate = DEFAULT_SIMULATION_RATE;
+    private float fixedStep = 1f / DEFAULT_SIMULATION_RATE;
+    private float accumulator = 0;
+    // created once, so reclaiming lost pucks does not allocate every frame
+    private final Predicate<Ball> isPuckLost = puck -> puck.getTopLeftCorner().y() > windowDimensions.y();
+    private final Consumer<Ball> removeLostPuck = puck -> {
+        effectScheduler.cancelAll(puck);
+        removeObjectFromGameObject(puck);
+    };
+    private final GameMetrics metrics = new GameMetrics();
 
     /**
-     * Constructor for the BrickerGameManager class.
+     * Constructor for the BrickerGameManager class, with an arbitrary seed.
      * @param windowTitle      The title of the game window.
      * @param windowDimensions The dimensions (width and height) of the game window.
      * @param brickLines       The number of rows of bricks in the game.
      * @param bricksPerLine    The number of bricks in each row.
      */
     public BrickerGameManager(String windowTitle, Vector2 windowDimensions, int brickLines, int bricksPerLine)
+    {
+        this(windowTitle, windowDimensions, brickLines, bricksPerLine, System.nanoTime());
+    }
+
+    /**
+     * Constructor for the BrickerGameManager class.
+     * @param windowTitle      The title of the game window.
+     * @param windowDimensions The dimensions (width and height) of the game window.
+     * @param brickLines       The number of rows of bricks in the game.
+     * @param bricksPerLine    The number of bricks in each row.
+     * @param seed             The seed of the game's randomness. The same seed and the same
+     *                         input always produce the same game.
+     */
+    public BrickerGameManager(String windowTitle, Vector2 windowDimensions, int brickLines, int bricksPerLine,
+                              long seed)
     {
         super(windowTitle, windowDimensions);
+        this.initialWindowDimensions = windowDimensions;
+        this.seed = seed;
+        this.rootRandom = new GameRandom(seed);
         this.brickLines = brickLines;
         this.bricksPerLine = bricksPerLine;
         this.bricksLeft = brickLines * bricksPerLine;
     }
 
+    /**
+     * Constructor for a game played on a level loaded from a level file.
+     * @param windowTitle      The title of the game window.
+     * @param windowDimensions The dimensions (width and height) of the game window.
+     * @param level            The level, which sets the grid size, the bricks and their strategies.
+     * @param seed             The seed of the game's randomness.
+     */
+    public BrickerGameManager(String windowTitle, Vector2 windowDimensions, LevelFile level, long seed)
+    {
+        this(windowTitle, windowDimensions, level.getRows(), level.getColumns(), seed);
+        this.level = level;
+    }
+
+    /**
+     * Creates a headless game, which runs the same game logic without a window: images are
+     * null renderables, sounds are silent and the end of the game is reported to a listener
+     * instead of a dialog. The game is stepped by calling update directly.
+     * @param brickLines      The number of rows of bricks in the game.
+     * @param bricksPerLine   The number of bricks in each row.
+     * @param seed            The seed of the game's randomness.
+     * @param paddleInput     The input driving the paddle.
+     * @param gameEndListener Notified when the game is won or lost.
+     * @return An initialized headless BrickerGameManager.
+     */
+    public static BrickerGameManager createHeadless(int brickLines, int bricksPerLine, long seed,
+                                                    KeyInput paddleInput, GameEndListener gameEndListener) {
+        BrickerGameManager manager = new BrickerGameManager(WINDOW_TITLE,
+                new Vector2(WINDOW_WIDTH, WINDOW_HEIGHT), brickLines, bricksPerLine, seed);
+        manager.initializeHeadless(paddleInput, gameEndListener);
+        return manager;
+    }
+
+    /**
+     * Creates a headless game played on a level loaded from a level file.
+     * @param level           The level of the game.
+     * @param seed            The seed of the game's randomness.
+     * @param paddleInput     The input driving the paddle.
+     * @param gameEndListener Notified when the game is won or lost.
+     * @return An initialized headless BrickerGameManager.
+     */
+    public static BrickerGameManager createHeadless(LevelFile level, long seed,
+                                                    KeyInput paddleInput, GameEndListener gameEndListener) {
+        BrickerGameManager manager = new BrickerGameManager(WINDOW_TITLE,
+                new Vector2(WINDOW_WIDTH, WINDOW_HEIGHT), level, seed);
+        manager.initializeHeadless(paddleInput, gameEndListener);
+        return manager;
+    }
+
     /**
      * Bricker.bricker.main paddle getter
      * @return Paddle
@@ -89,7 +245,7 @@ public class BrickerGameManager extends GameManager {
      * window dimensions getter
      * @return Vector2 representing window dimensions
      */
-    public static Vector2 getWindowDimensions() {
+    public Vector2 getWindowDimensions() {
         return windowDimensions;
     }
 
@@ -97,10 +253,18 @@ public class BrickerGameManager extends GameManager {
      * Getter for the window controller.
      * @return The window controller.
      */
-    public static WindowController getWindowController() {
+    public WindowController getWindowController() {
         return windowController;
     }
 
+    /**
+     * Getter for the shared asset cache.
+     * @return The asset cache used for every image and sound of the game.
+     */
+    public AssetCache getAssetCache() {
+        return assetCache;
+    }
+
     /**
      * Getter for the extra paddle.
      * @return The extra paddle.
@@ -133,24 +297,102 @@ public class BrickerGameManager extends GameManager {
     public void initializeGame(ImageReader imageReader, SoundReader soundReader,
                                UserInputListener inputListener, WindowController windowController) {
         super.initializeGame(imageReader, soundReader, inputListener, windowController);
-        this.imageReader = imageReader;
-        this.soundReader = soundReader;
-        this.inputLister = inputListener;
-        windowDimensions = windowController.getWindowDimensions();
+        if (assetCache == null) {
+            // decoded assets are shared across game resets
+            assetCache = new AssetCache(imageReader, soundReader);
+        }
+        if (soundDispatcher == null) {
+            // collision sounds are played off the game thread, also across game resets
+            soundDispatcher = new SoundDispatcher();
+            soundDispatcher.start();
+        }
         this.windowController = windowController;
+        this.gameEndListener = this::askToPlayAgain;
+        KeyInput paddleInput = inputListener::isKeyPressed;
+        if (autopilot != null) {
+            autopilot.attach(this);
+            paddleInput = autopilot;
+        }
+        if (inputReplay != null) {
+            // initializeGame runs again whenever the player chooses to play again
+            inputReplay.startGame();
+            paddleInput = inputReplay;
+        } else if (inputRecorder != null) {
+            // only the keyboard is recorded, see setInputRecorder
+            inputRecorder.setSource(paddleInput);
+            inputRecorder.startGame();
+            paddleInput = inputRecorder;
+        }
+        initializeWorld(paddleInput, windowController.getWindowDimensions());
+        this.userInput = inputListener;
+        if (loadPath != null) {
+            loadSnapshot();
+        }
+    }
+
+    /**
+     * initializes a headless Bricker game, without a window or engine readers. The engine is
+     * still initialized, since it sets up its game object collection there, with a window
+     * controller and input listener that stand in for the missing window.
+     * @param paddleInput     The input driving the paddle.
+     * @param gameEndListener Notified when the game is won or lost.
+     */
+    private void initializeHeadless(KeyInput paddleInput, GameEndListener gameEndListener) {
+        super.initializeGame(null, null, HeadlessWindow.createInputListener(),
+                HeadlessWindow.createWindowController(initialWindowDimensions));
+        if (assetCache == null) {
+            assetCache = AssetCache.silent();
+        }
+        this.gameEndListener = gameEndListener;
+        initializeWorld(paddleInput, initialWindowDimensions);
+    }
+
+    /**
+     * Starts the next game of a headless session, as a windowed game does when the player chooses
+     * to play again: the world is rebuilt in the same manager, whose random generators continue
+     * where the previous game left them.
+     */
+    public void restartHeadless() {
+        initializeHeadless(inputLister, gameEndListener);
+    }
+
+    /**
+     * creates all game objects and resets the game state, for both windowed and headless games
+     * @param paddleInput The input driving the paddle.
+     * @param dimensions  The dimensions of the game window.
+     */
+    private void initializeWorld(KeyInput paddleInput, Vector2 dimensions) {
+        this.inputLister = paddleInput;
+        this.windowDimensions = dimensions;
+        livesLeft = 0;
+        livesLost = 0;
+        Arrays.fill(strategyCounts, 0);
+        extraPaddle = null;
+        gameOver = false;
+        accumulator = 0;
+        renderInterpolator.clear();
+        worldCommands.clear();
+        // every subsystem draws from its own sub-stream of the game's seed
+        boardRandom = rootRandom.split();
+        launchRandom = rootRandom.split();
+        puckRandom = rootRandom.split();
+        effectScheduler = new EffectScheduler(this::endEffect);
+        // pre-allocate pucks, falling hearts and extra paddles
+        createSpawnPools();
         //add background
         createGameBackground();
         // create borders
         createGameBorders();
         // create paddle
-        this.paddle = createPaddle(inputListener,
+        this.paddle = createPaddle(paddleInput,
                 new Vector2(windowDimensions.x() / 2, windowDimensions.y() - PADDLE_HEIGHT));
         // create bricks
         createBricks();
         // create ball
-        createBall(soundReader);
+        createBall();
         // init lives
         initializeLives();
+        metrics.gaugesUpdated(bricksLeft, livesLeft, getLiveSpawnCount());
     }
 
     /**
@@ -169,33 +411,62 @@ public class BrickerGameManager extends GameManager {
     }
 
     /**
-     * initializes game background
+     * creates the pools of objects spawned by brick strategies during the game
+     */
+    private void createSpawnPools() {
+        Renderable puckImage = assetCache.readImage(PUCK_IMG_PATH, true);
+        Renderable heartImage = assetCache.readImage(HEART_IMG_PATH, true);
+        Renderable paddleImage = assetCache.readImage(PADDLE_IMG_PATH, true);
+        Sound collisionSound = assetCache.readSound(COLLISION_SOUND_PATH);
+        Vector2 puckDimensions = new Vector2(PUCK_SIZE, PUCK_SIZE);
+        Vector2 heartDimensions = new Vector2(HEART_SIZE, HEART_SIZE);
+        Vector2 paddleDimensions = new Vector2(PADDLE_DIMENSIONS, PADDLE_LEN);
+        puckPool = new GameObjectPool<>(() -> {
+            Ball puck = new Ball(Vector2.ZERO, puckDimensions, puckImage, collisionSound, soundDispatcher);
+            puck.setTag(PUCK_TAG);
+            puck.setEffectScheduler(effectScheduler);
+            return puck;
+        }, PREALLOCATED_PUCKS);
+        fallingHeartPool = new GameObjectPool<>(
+                () -> new Heart(Vector2.ZERO, heartDimensions, heartImage, this), PREALLOCATED_HEARTS);
+        extraPaddlePool = new GameObjectPool<>(() -> {
+            AdditionalPaddle newPaddle = new AdditionalPaddle(Vector2.ZERO, paddleDimensions, paddleImage,
+                    inputLister, windowDimensions);
+            newPaddle.setEffectScheduler(effectScheduler);
+            return newPaddle;
+        }, PREALLOCATED_EXTRA_PADDLES);
+    }
+
+    /**
+     * initializes game background, drawn through the static layer that the bricks are later
+     * composited into
      */
     private void createGameBackground() {
         Renderable backGroundImage =
-                imageReader.readImage(BACKGROUND_IMG_PATH, false);
-        GameObject backGround = new GameObject(Vector2.ZERO, windowDimensions, backGroundImage);
+                assetCache.readImage(BACKGROUND_IMG_PATH, false);
+        // headless games have no images to composite
+        staticLayer = backGroundImage == null ? null : new StaticLayer(windowDimensions, backGroundImage);
+        GameObject backGround = new GameObject(Vector2.ZERO, windowDimensions, staticLayer);
         this.gameObjects().addGameObject(backGround, Layer.BACKGROUND);
     }
 
     /**
      * initialize ball for the game
-     * @param soundReader: see initializeGame documentation
      */
-    private void createBall(SoundReader soundReader) {
+    private void createBall() {
         Renderable ballImage =
-                imageReader.readImage(BALL_IMG_PATH, true);
-        Sound collisionSound = soundReader.readSound(COLLISION_SOUND_PATH);
+                assetCache.readImage(BALL_IMG_PATH, true);
+        Sound collisionSound = assetCache.readSound(COLLISION_SOUND_PATH);
         ball = new Ball(Vector2.ZERO, new Vector2(BALL_DIMENSIONS, BALL_DIMENSIONS),
-                                                                        ballImage, collisionSound);
+                                                        ballImage, collisionSound, soundDispatcher);
+        ball.setEffectScheduler(effectScheduler);
         ball.setVelocity(Vector2.DOWN.mult(BALL_SPEED));
         ball.setCenter(windowDimensions.mult(0.5f));
         this.gameObjects().addGameObject(ball);
         // set ball angel
         float ballVelX = BALL_SPEED;
         float ballVelY= BALL_SPEED;
-        Random rand = new Random();
-        if (rand.nextBoolean()){
+        if (launchRandom.nextBoolean()){
             ballVelX *= -1;
         }
         ball.setVelocity(new Vector2(ballVelX, ballVelY));
@@ -203,13 +474,15 @@ public class BrickerGameManager extends GameManager {
 
     /**
      * creates Paddle
-     * @param inputListener see initializeGame documentation
+     * @param inputListener the input driving the paddle
+     * @param location the position of the paddle
      */
-    public Paddle createPaddle(UserInputListener inputListener, Vector2 location) {
-        Renderable paddleImage = imageReader.readImage(PADDLE_IMG_PATH, true);
-        int PADDLE_LEN = 15;
+    public Paddle createPaddle(KeyInput inputListener, Vector2 location) {
+        Renderable paddleImage = assetCache.readImage(
+                autopilot != null ? autopilot.getImagePath() : PADDLE_IMG_PATH, true);
         Paddle newPaddle = new Paddle(location, new Vector2(PADDLE_DIMENSIONS, PADDLE_LEN),
                 paddleImage, inputListener, windowDimensions);
+        newPaddle.setEffectScheduler(effectScheduler);
 //        newPaddle.setCenter(location);
         this.gameObjects().addGameObject(newPaddle);
         return newPaddle;
@@ -220,62 +493,111 @@ public class BrickerGameManager extends GameManager {
      * creates game borders
      */
     private void createGameBorders() {
-        createWall(Vector2.ZERO, new Vector2(WALL_WIDTH, windowDimensions.y()));
-        createWall(Vector2.ZERO, new Vector2(windowDimensions.x(), WALL_WIDTH));
-        createWall(new Vector2 (windowDimensions.x(),0), new Vector2(WALL_WIDTH, windowDimensions.y()));
+        walls[0] = createWall(Vector2.ZERO, new Vector2(WALL_WIDTH, windowDimensions.y()));
+        walls[1] = createWall(Vector2.ZERO, new Vector2(windowDimensions.x(), WALL_WIDTH));
+        walls[2] = createWall(new Vector2 (windowDimensions.x(),0),
+                new Vector2(WALL_WIDTH, windowDimensions.y()));
     }
 
     /**
      * create a wall for border of the game
      * @param position position for wall
      * @param dimensions dimension of wall
+     * @return the wall
      */
-    private void createWall(Vector2 position, Vector2 dimensions){
+    private GameObject createWall(Vector2 position, Vector2 dimensions){
 
         GameObject leftWall = new GameObject(position,dimensions,null);
         this.gameObjects().addGameObject(leftWall);
+        return leftWall;
     }
 
     /**
-     * create Bricks for game
+     * create Bricks for game. All bricks are held by a single brick field, built in one pass and
+     * added to its own layer, which the engine does not test against balls; ball-vs-brick
+     * collisions are swept by the field instead. The bricks and their strategies are copied from
+     * the level if the game has one, and chosen at random otherwise, effect bricks included. The
+     * bricks are drawn once, into the static layer, effect bricks with their icon.
      */
     public void createBricks(){
-        Renderable brickImage = imageReader.readImage(BRICK_IMG_PATH, false);
+        Renderable brickImage = assetCache.readImage(BRICK_IMG_PATH, false);
         int brickLen = (int)
                 (windowDimensions.x() - (2 * WALL_WIDTH) - (bricksPerLine + 1)) / this.bricksPerLine;
-        int startPositionY = WALL_WIDTH + 1;
-        CollisionStrategyFactory strategyFactory = new CollisionStrategyFactory(this,
-                imageReader, soundReader, inputLister, brickLen);
-        for (int i = 0; i < brickLines; i++) {
-            int startPositionX = WALL_WIDTH + 1;
-            for (int j = 0; j < bricksPerLine; j++) {
-                Vector2 brickPosition = new Vector2(startPositionX, startPositionY);
-                CollisionStrategy strategy = strategyFactory.generateBrickStrategy(RANDOM_MAX, brickPosition);
-                Brick curBrick =
-                        new Brick(brickPosition, new Vector2(brickLen, BRICK_WIDTH), brickImage, strategy);
-                this.gameObjects().addGameObject(curBrick);
-                startPositionX += (brickLen + 1);
+        this.gameObjects().layers().shouldLayersCollide(Layer.DEFAULT, Layer.STATIC_OBJECTS, false);
+        strategyFactory = new CollisionStrategyFactory(boardRandom);
+        brickField = new BrickField(WALL_WIDTH + 1, WALL_WIDTH + 1, brickLen + 1, BRICK_WIDTH + 1,
+                brickLines, bricksPerLine, new StrategyDispatcher(this));
+        brickField.fillGrid(brickLen, BRICK_WIDTH);
+        if (level != null) {
+            level.applyTo(brickField);
+        } else {
+            for (int brick = 0; brick < brickField.size(); brick++) {
+                brickField.setCode(brick, strategyFactory.generateBrickCode(RANDOM_MAX));
             }
-            startPositionY += (BRICK_WIDTH + 1);
         }
+        bricksLeft = brickField.getLiveCount();
+        if (staticLayer != null) {
+            for (EffectType type : EffectType.values()) {
+                if (type.getIconPath() != null) {
+                    staticLayer.setEffectIcon(type, assetCache.readImage(type.getIconPath(), true));
+                }
+            }
+            staticLayer.drawBricks(brickField, brickImage);
+        }
+        this.gameObjects().addGameObject(brickField, Layer.STATIC_OBJECTS);
     }
 
     /**
-     * remove brick from game
-     * @param brickToRemove Brick object to remove
+     * remove brick from game. The brick leaves the brick field at once, so it cannot be hit twice;
+     * the rest of the removal is applied after the physics step.
+     * @param brick index of the brick to remove in the brick field
      */
-    public void removeBrick(GameObject brickToRemove){
-        if (this.gameObjects().removeGameObject(brickToRemove)){
-            bricksLeft --;
+    public void removeBrick(int brick){
+        if (brickField.remove(brick)){
+            worldCommands.removeBrick(brick);
         }
     }
 
+    /**
+     * Turns endless mode on or off. In endless mode the game cannot be won: every time a row of
+     * bricks is cleared, the bricks scroll down by one row and a new row is pushed in from the top,
+     * so the number of bricks, and the memory they use, never grows.
+     * @param endless true to play in endless mode.
+     */
+    public void setEndless(boolean endless) {
+        this.endless = endless && brickLines > 0;
+    }
+
+    /**
+     * Returns whether the game is played in endless mode.
+     * @return true if the game is endless.
+     */
+    public boolean isEndless() {
+        return endless;
+    }
+
+    /**
+     * Returns the level the game is played on.
+     * @return The level, or null if the board is random.
+     */
+    public LevelFile getLevel() {
+        return level;
+    }
+
+    /**
+     * Returns the field holding the bricks of the game.
+     * @return The brick field.
+     */
+    public BrickField getBrickField() {
+        return brickField;
+    }
+
     /**
      * add a life to game
      */
     public void addHeartToLivesCollection() {
         if (livesLeft < 4) {
-            Renderable heartImg = imageReader.readImage(HEART_IMG_PATH, true);
+            Renderable heartImg = assetCache.readImage(HEART_IMG_PATH, true);
             Heart heart =
                     new Heart(new Vector2((NUMERIC_LIFE_DIMENSIONS + 5) + (livesLeft * (HEART_SIZE + 2)),
                             (windowDimensions.y() - NUMERIC_LIFE_DIMENSIONS)),
@@ -287,13 +609,319 @@ public class BrickerGameManager extends GameManager {
     }
 
     /**
-     * Updates the game state.
+     * Updates the game state. The engine's variable frame time is accumulated and the game logic
+     * advances in fixed steps, so a slow frame does not change the game's behaviour; moving
+     * objects are then rendered between their last two simulated positions.
      * @param deltaTime Time elapsed since the last update.
      */
     @Override
     public void update(float deltaTime) {
-        super.update(deltaTime);
-        checkIfGameEnds();
+        renderInterpolator.restore();
+        saveOnKeyPress();
+        // clamp long frames, so a slow machine never falls into a spiral of ever longer catch-ups
+        accumulator += Math.min(deltaTime, MAX_FRAME_TIME);
+        int steps = 0;
+        while (accumulator >= fixedStep && steps < MAX_STEPS_PER_FRAME) {
+            trackMovingObjects();
+            stepSimulation();
+            accumulator -= fixedStep;
+            steps++;
+        }
+        if (steps == MAX_STEPS_PER_FRAME) {
+            accumulator = Math.min(accumulator, fixedStep);
+        }
+        renderInterpolator.interpolate(accumulator / fixedStep);
+    }
+
+    /**
+     * Sets the file the game is saved to whenever the save key (S) is pressed.
+     * @param savePath The path of the snapshot file, or null to disable saving.
+     */
+    public void setSavePath(Path savePath) {
+        this.savePath = savePath;
+    }
+
+    /**
+     * Sets a snapshot to restore once the game is initialized, so a saved game is resumed. The
+     * snapshot must be of a game with the same board, mode and level.
+     * @param loadPath The path of the snapshot file, or null to start a new game.
+     */
+    public void setLoadPath(Path loadPath) {
+        this.loadPath = loadPath;
+    }
+
+    /**
+     * saves the game to the save path when the save key is pressed, once per press. Called
+     * between simulation steps, with the simulated positions restored.
+     */
+    private void saveOnKeyPress() {
+        boolean down = savePath != null && userInput.isKeyPressed(SAVE_KEY);
+        if (down && !saveKeyDown) {
+            try {
+                GameSnapshot.write(this, savePath);
+            } catch (IOException e) {
+                System.err.println("Failed to save game snapshot: " + e.getMessage());
+            }
+        }
+        saveKeyDown = down;
+    }
+
+    /**
+     * restores the snapshot to load into the newly initialized game. A game started after this
+     * one, e.g. by playing again, starts from scratch.
+     */
+    private void loadSnapshot() {
+        try {
+            GameSnapshot.read(this, loadPath);
+        } catch (IOException e) {
+            System.err.println("Failed to load game snapshot: " + e.getMessage());
+        }
+        loadPath = null;
+    }
+
+    /**
+     * Advances the game logic by one fixed step. Headless games call it directly.
+     */
+    public void stepSimulation() {
+        long frameStart = System.nanoTime();
+        inputLister.beginFrame();
+        storeBallPositions();
+        super.update(fixedStep);
+        int frameBrickHits = sweepBalls();
+        reclaimLostPucks();
+        applyWorldCommands();
+        effectScheduler.advance();
+        if (!gameOver) {
+            checkIfGameEnds();
+        }
+        if (spectatorFeed != null) {
+            spectatorFeed.publish(this);
+        }
+        metrics.gaugesUpdated(bricksLeft, livesLeft, getLiveSpawnCount());
+        metrics.frameEnded(System.nanoTime() - frameStart, frameBrickHits);
+    }
+
+    /**
+     * records where every moving object starts the next simulation step, for render interpolation
+     */
+    private void trackMovingObjects() {
+        renderInterpolator.clear();
+        renderInterpolator.track(ball);
+        renderInterpolator.track(paddle);
+        if (extraPaddle != null) {
+            renderInterpolator.track(extraPaddle);
+        }
+        int livePucks = puckPool.getLiveCount();
+        for (int i = 0; i < livePucks; i++) {
+            renderInterpolator.track(puckPool.getLive(i));
+        }
+        int liveHearts = fallingHeartPool.getLiveCount();
+        for (int i = 0; i < liveHearts; i++) {
+            renderInterpolator.track(fallingHeartPool.getLive(i));
+        }
+    }
+
+    /**
+     * Sets the rate at which the game logic is stepped.
+     * @param stepsPerSecond The number of fixed simulation steps per second.
+     * @throws IllegalArgumentException If the rate is not positive.
+     */
+    public void setSimulationRate(int stepsPerSecond) {
+        if (stepsPerSecond <= 0) {
+            throw new IllegalArgumentException("The simulation rate must be positive, got " + stepsPerSecond);
+        }
+        this.simulationRate = stepsPerSecond;
+        this.fixedStep = 1f / stepsPerSecond;
+    }
+
+    /**
+     * Returns the rate at which the game logic is stepped.
+     * @return The number of fixed simulation steps per second.
+     */
+    public int getSimulationRate() {
+        return simulationRate;
+    }
+
+    /**
+     * Returns the duration of a simulation step.
+     * @return The fixed step, in seconds.
+     */
+    public float getFixedStep() {
+        return fixedStep;
+    }
+
+    /**
+     * remembers where the ball and every live puck start the tick, for continuous collision detection
+     */
+    private void storeBallPositions() {
+        ball.storePreviousPosition();
+        int livePucks = puckPool.getLiveCount();
+        for (int i = 0; i < livePucks; i++) {
+            puckPool.getLive(i).storePreviousPosition();
+        }
+    }
+
+    /**
+     * sweeps the ball and every live puck along their path during the tick against the bricks,
+     * walls and paddles
+     * @return the number of bricks hit
+     */
+    private int sweepBalls() {
+        int hits = sweepBall(ball);
+        int livePucks = puckPool.getLiveCount();
+        for (int i = 0; i < livePucks; i++) {
+            hits += sweepBall(puckPool.getLive(i));
+        }
+        return hits;
+    }
+
+    /**
+     * resolves the hits of a ball during the tick in order: the earliest brick, wall or paddle
+     * on its path is hit at the exact time of impact, then the rest of the movement, reflected off
+     * the surface hit, is swept again from the point of impact, up to MAX_SWEEPS_PER_TICK times.
+     * A fast ball therefore cannot pass through a second object after its first bounce
+     * @param movingBall the ball or puck to sweep
+     * @return the number of bricks the ball hit
+     */
+    private int sweepBall(Ball movingBall) {
+        float fromX = movingBall.getPreviousX();
+        float fromY = movingBall.getPreviousY();
+        Vector2 dimensions = movingBall.getDimensions();
+        int lastBrick = -1;
+        GameObject lastSolid = null;
+        int brickHits = 0;
+        for (int i = 0; i < MAX_SWEEPS_PER_TICK; i++) {
+            Vector2 position = movingBall.getTopLeftCorner();
+            int brick = brickField.sweepFirst(fromX, fromY, position.x(), position.y(),
+                    dimensions.x(), dimensions.y(), lastBrick);
+            float brickTime = brick < 0 ? Float.POSITIVE_INFINITY : brickField.getHitTime();
+            GameObject solid = findFirstSolid(movingBall, fromX, fromY, lastSolid);
+            if (solid != null && isTunneling(movingBall, fromX, fromY, solid)
+                    && sweptCollision.getTime() <= brickTime) {
+                sweptCollision.resolve(movingBall, fromX, fromY);
+                lastSolid = solid;
+                lastBrick = -1;
+            } else if (brick >= 0) {
+                sweptCollision.sweep(fromX, fromY, position.x(), position.y(), dimensions.x(), dimensions.y(),
+                        brickField.getX(brick), brickField.getY(brick), brickField.getWidth(brick),
+                        brickField.getHeight(brick));
+                sweptCollision.resolve(movingBall, fromX, fromY);
+                brickField.hit(brick, movingBall);
+                brickHits++;
+                lastBrick = brick;
+                lastSolid = null;
+            } else {
+                break;
+            }
+            fromX = sweptCollision.getImpactX();
+            fromY = sweptCollision.getImpactY();
+        }
+        return brickHits;
+    }
+
+    /**
+     * finds the earliest wall or paddle a ball's path crosses without the engine noticing,
+     * because the ball moved further than the object's thickness in one frame
+     * @param movingBall   the ball or puck
+     * @param fromX        the x coordinate of the ball's top-left corner at the start of the path
+     * @param fromY        the y coordinate of the ball's top-left corner at the start of the path
+     * @param ignoredSolid the object the path starts on after bouncing off it, or null
+     * @return the first object crossed, or null
+     */
+    private GameObject findFirstSolid(Ball movingBall, float fromX, float fromY, GameObject ignoredSolid) {
+        GameObject firstHit = null;
+        float firstTime = Float.POSITIVE_INFINITY;
+        for (GameObject wall : walls) {
+            if (wall != ignoredSolid && isTunneling(movingBall, fromX, fromY, wall)
+                    && sweptCollision.getTime() < firstTime) {
+                firstHit = wall;
+                firstTime = sweptCollision.getTime();
+            }
+        }
+        if (paddle != ignoredSolid && isTunneling(movingBall, fromX, fromY, paddle)
+                && sweptCollision.getTime() < firstTime) {
+            firstHit = paddle;
+            firstTime = sweptCollision.getTime();
+        }
+        if (extraPaddle != null && extraPaddle != ignoredSolid
+                && isTunneling(movingBall, fromX, fromY, extraPaddle) && sweptCollision.getTime() < firstTime) {
+            firstHit = extraPaddle;
+        }
+        return firstHit;
+    }
+
+    /**
+     * checks whether a ball's path crossed an object it does not overlap now, i.e. a hit the
+     * engine's per-frame overlap test could not see
+     * @param movingBall the ball or puck
+     * @param fromX      the x coordinate of the ball's top-left corner at the start of the path
+     * @param fromY      the y coordinate of the ball's top-left corner at the start of the path
+     * @param solid      the wall or paddle
+     * @return true if the ball tunneled through the object; its sweep is then left in sweptCollision
+     */
+    private boolean isTunneling(Ball movingBall, float fromX, float fromY, GameObject solid) {
+        Vector2 position = movingBall.getTopLeftCorner();
+        Vector2 dimensions = movingBall.getDimensions();
+        Vector2 solidPosition = solid.getTopLeftCorner();
+        Vector2 solidDimensions = solid.getDimensions();
+        boolean overlapsNow = position.x() < solidPosition.x() + solidDimensions.x()
+                && position.x() + dimensions.x() > solidPosition.x()
+                && position.y() < solidPosition.y() + solidDimensions.y()
+                && position.y() + dimensions.y() > solidPosition.y();
+        return !overlapsNow && sweptCollision.sweep(movingBall, fromX, fromY, solid)
+                && sweptCollision.getTime() > 0;
+    }
+
+    /**
+     * applies the changes to the world raised during the step, in one pass
+     */
+    private void applyWorldCommands() {
+        metrics.objectsAdded(worldCommands.applyObjects(gameObjects()));
+        int removedBricks = worldCommands.getRemovedBrickCount();
+        if (staticLayer != null) {
+            for (int i = 0; i < removedBricks; i++) {
+                staticLayer.eraseBrick(worldCommands.getRemovedBrick(i));
+            }
+        }
+        bricksLeft -= removedBricks;
+        metrics.bricksRemoved(removedBricks);
+        int clearedRows = brickField.takeClearedRows();
+        if (endless) {
+            for (int i = 0; i < clearedRows; i++) {
+                streamNewRow();
+            }
+        }
+        int livesGained = worldCommands.getLivesGained();
+        if (livesGained > 0) {
+            for (int i = 0; i < livesGained; i++) {
+                addHeartToLivesCollection();
+            }
+            updateLifeNumericCounter();
+        }
+        worldCommands.clear();
+    }
+
+    /**
+     * endless mode: scrolls the bricks down by one row, retiring the bottom row and reusing its
+     * cells for a new row of random bricks at the top. Costs one row of work, whatever the size
+     * of the board.
+     */
+    private void streamNewRow() {
+        int retired = brickField.scrollDown();
+        for (int column = 0; column < brickField.getColumns(); column++) {
+            brickField.setCode(brickField.getBrick(0, column), strategyFactory.generateBrickCode(RANDOM_MAX));
+        }
+        bricksLeft += brickField.getColumns() - retired;
+        if (staticLayer != null) {
+            staticLayer.scrollDown();
+        }
+    }
+
+    /**
+     * returns to the pool every puck that fell below the window
+     */
+    private void reclaimLostPucks() {
+        puckPool.reclaimIf(isPuckLost, removeLostPuck);
     }
 
 
@@ -304,44 +932,495 @@ public class BrickerGameManager extends GameManager {
         // check lose
         ifLose();
         // check win
-        ifWin();
+        if (!gameOver) {
+            ifWin();
+        }
     }
 
     /**
-     * check if player wined the game, ask if play again and close or reset game according to players answer
+     * check if player wined the game and report it to the game end listener
      */
     private void ifWin() {
-        if (bricksLeft == 0) {
-            if (this.windowController.openYesNoDialog(WIN_MESSAGE)) {
-                windowController.resetGame();
-            } else {
-                windowController.closeWindow();
-            }
+        if (!endless && bricksLeft == 0) {
+            endGame(true);
         }
     }
 
     /**
-     * check if player lost the game, ask if play again and close or reset game according to players answer
+     * check if player lost the game and report it to the game end listener
      */
     private void ifLose(){
-        float ballHeight = this.ball.getCenter().y();
+        float ballHeight = this.ball.getTopLeftCorner().y() + BALL_DIMENSIONS / 2f;
         if (ballHeight > windowDimensions.y()) {
             if (livesLeft > 1) {
                 this.gameObjects().removeGameObject(hearts[livesLeft - 1], Layer.UI);
                 hearts[livesLeft - 1] = null;
                 livesLeft--;
+                livesLost++;
                 updateLifeNumericCounter();
                 resetBall();
             } else {
-                if (this.windowController.openYesNoDialog(LOSE_MESSAGE)) {
-                    windowController.resetGame();
-                } else {
-                    windowController.closeWindow();
-                }
+                livesLost++;
+                endGame(false);
             }
         }
     }
 
+    /**
+     * marks the game as over and notifies the game end listener
+     * @param won true if the player won the game, false if the player lost
+     */
+    private void endGame(boolean won) {
+        gameOver = true;
+        gameEndListener.onGameEnd(won);
+    }
+
+    /**
+     * ask if play again and close or reset game according to players answer
+     * @param won true if the player won the game, false if the player lost
+     */
+    private void askToPlayAgain(boolean won) {
+        if (windowController.openYesNoDialog(won ? WIN_MESSAGE : LOSE_MESSAGE)) {
+            windowController.resetGame();
+        } else {
+            windowController.closeWindow();
+        }
+    }
+
+    /**
+     * Returns whether the game was won or lost and is waiting to be reset.
+     * @return true if the game is over.
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * Returns the number of bricks still in the game.
+     * @return The number of bricks left.
+     */
+    public int getBricksLeft() {
+        return bricksLeft;
+    }
+
+    /**
+     * Returns the number of lives the player lost since the game started.
+     * @return The number of lives lost.
+     */
+    public int getLivesLost() {
+        return livesLost;
+    }
+
+    /**
+     * Returns the main ball of the game.
+     * @return The main ball.
+     */
+    public Ball getBall() {
+        return ball;
+    }
+
+    /**
+     * Returns the seed of the game's randomness.
+     * @return The seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Records the paddle input of a windowed game. Must be called before the game starts.
+     * Autopilot play cannot be recorded: a recording holds one set of keys per frame, while an
+     * autopilot drives each paddle with its own keys.
+     * @param inputRecorder The recorder to route the user's keys through.
+     * @throws IllegalStateException If an autopilot drives the paddles.
+     */
+    public void setInputRecorder(InputRecorder inputRecorder) {
+        if (inputRecorder != null && autopilot != null) {
+            throw new IllegalStateException("Autopilot play cannot be recorded");
+        }
+        this.inputRecorder = inputRecorder;
+    }
+
+    /**
+     * Drives the paddles of a windowed game from a recording instead of the user's keys.
+     * Must be called before the game starts.
+     * @param inputReplay The replay feeding the paddles.
+     */
+    public void setInputReplay(InputReplay inputReplay) {
+        this.inputReplay = inputReplay;
+    }
+
+    /**
+     * Returns the sub-stream of the game's randomness used for puck angles.
+     * @return The puck GameRandom.
+     */
+    public GameRandom getPuckRandom() {
+        return puckRandom;
+    }
+
+    /**
+     * Counts a collision strategy that fired.
+     * @param type The kind of strategy that fired.
+     */
+    public void strategyFired(StrategyType type) {
+        strategyCounts[type.ordinal()]++;
+        metrics.strategyFired(type);
+    }
+
+    /**
+     * Lets an autopilot drive the paddles of the windowed game instead of the keyboard. The main
+     * paddle is drawn with the autopilot's image. Autopilot play cannot be recorded, see
+     * setInputRecorder.
+     * @param autopilot The autopilot, or null to play with the keyboard.
+     * @throws IllegalStateException If the game's input is being recorded.
+     */
+    public void setAutopilot(Autopilot autopilot) {
+        if (autopilot != null && inputRecorder != null) {
+            throw new IllegalStateException("Autopilot play cannot be recorded");
+        }
+        this.autopilot = autopilot;
+    }
+
+    /**
+     * Returns the width of the walls around the play area.
+     * @return The wall width.
+     */
+    public float getWallWidth() {
+        return WALL_WIDTH;
+    }
+
+    /**
+     * Sets the feed the state of every simulation step is broadcast to.
+     * @param spectatorFeed The spectator feed, or null to stop broadcasting.
+     */
+    public void setSpectatorFeed(SpectatorFeed spectatorFeed) {
+        this.spectatorFeed = spectatorFeed;
+    }
+
+    /**
+     * Returns the pool of pucks; its live objects are the pucks currently in the game.
+     * @return The puck pool.
+     */
+    public GameObjectPool<Ball> getPucks() {
+        return puckPool;
+    }
+
+    /**
+     * Returns the pool of falling hearts; its live objects are the hearts currently falling.
+     * @return The falling heart pool.
+     */
+    public GameObjectPool<Heart> getFallingHearts() {
+        return fallingHeartPool;
+    }
+
+    /**
+     * Returns the number of rows of bricks in the game.
+     * @return The number of brick lines.
+     */
+    public int getBrickLines() {
+        return brickLines;
+    }
+
+    /**
+     * Returns the number of bricks in each row.
+     * @return The number of bricks per line.
+     */
+    public int getBricksPerLine() {
+        return bricksPerLine;
+    }
+
+    /**
+     * Returns the number of bytes writeSnapshot writes for the current state of the game.
+     * @return The size of the game's state.
+     */
+    public int getSnapshotSize() {
+        return SNAPSHOT_FIXED_BYTES + strategyCounts.length * Long.BYTES + brickField.getStateSize()
+                + SNAPSHOT_PADDLE_BYTES + SNAPSHOT_BALL_BYTES
+                + Integer.BYTES + puckPool.getLiveCount() * SNAPSHOT_BALL_BYTES
+                + Integer.BYTES + fallingHeartPool.getLiveCount() * SNAPSHOT_HEART_BYTES
+                + SNAPSHOT_PADDLE_BYTES + effectScheduler.getStateSize();
+    }
+
+    /**
+     * Writes the whole state of the game between two simulation steps: the random generators,
+     * lives and counters, the live bricks and their strategy codes, the paddles, ball, pucks
+     * and falling hearts, and the timed effects on them.
+     * @param buffer The buffer to write to, at its position, with getSnapshotSize bytes remaining.
+     */
+    public void writeSnapshot(ByteBuffer buffer) {
+        buffer.putLong(rootRandom.getState()).putLong(boardRandom.getState())
+                .putLong(launchRandom.getState()).putLong(puckRandom.getState());
+        buffer.putInt(livesLeft).putInt(livesLost).putInt(bricksLeft).put((byte) (gameOver ? 1 : 0));
+        for (long count : strategyCounts) {
+            buffer.putLong(count);
+        }
+        buffer.putInt(brickField.getScroll());
+        brickField.writeState(buffer);
+        writePaddleSnapshot(buffer, paddle);
+        writeBallSnapshot(buffer, ball);
+        buffer.putInt(puckPool.getLiveCount());
+        for (int i = 0; i < puckPool.getLiveCount(); i++) {
+            writeBallSnapshot(buffer, puckPool.getLive(i));
+        }
+        buffer.putInt(fallingHeartPool.getLiveCount());
+        for (int i = 0; i < fallingHeartPool.getLiveCount(); i++) {
+            Heart heart = fallingHeartPool.getLive(i);
+            buffer.putFloat(heart.getTopLeftCorner().x()).putFloat(heart.getTopLeftCorner().y())
+                    .putFloat(heart.getVelocity().x()).putFloat(heart.getVelocity().y());
+        }
+        writePaddleSnapshot(buffer, extraPaddle);
+        effectScheduler.writeState(buffer, this::getEffectTargetId);
+    }
+
+    /**
+     * Restores a state written by writeSnapshot for a board of the same size, between two
+     * simulation steps. Spawned objects are taken from their pools and the static layer and
+     * lives display are redrawn, so the game continues exactly where the snapshot was taken.
+     * The whole state is checked first, so a corrupt one leaves the game untouched.
+     * @param buffer The buffer to read from, at its position, holding exactly the state.
+     * @throws IOException If the state is truncated or holds values no game can be in.
+     */
+    public void readSnapshot(ByteBuffer buffer) throws IOException {
+        try {
+            if (!checkSnapshot(buffer.duplicate().order(buffer.order()))) {
+                throw new IOException("Corrupt game snapshot");
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            // skipping past the end of the buffer throws IllegalArgumentException
+            throw new IOException("Truncated game snapshot", e);
+        }
+        rootRandom.setState(buffer.getLong());
+        boardRandom.setState(buffer.getLong());
+        launchRandom.setState(buffer.getLong());
+        puckRandom.setState(buffer.getLong());
+        int savedLives = buffer.getInt();
+        livesLost = buffer.getInt();
+        bricksLeft = buffer.getInt();
+        gameOver = buffer.get() != 0;
+        effectScheduler.clear();
+        for (int i = 0; i < strategyCounts.length; i++) {
+            strategyCounts[i] = buffer.getLong();
+        }
+        brickField.setScroll(buffer.getInt());
+        brickField.readState(buffer);
+        if (staticLayer != null) {
+            staticLayer.drawBricks(brickField, assetCache.readImage(BRICK_IMG_PATH, false));
+        }
+        readPaddleSnapshot(buffer, paddle);
+        Renderable turboImage = assetCache.readImage(TURBO_IMG_PATH, true);
+        readBallSnapshot(buffer, ball, turboImage);
+        puckPool.reclaimIf(puck -> true, puck -> gameObjects().removeGameObject(puck));
+        int pucks = buffer.getInt();
+        for (int i = 0; i < pucks; i++) {
+            Ball puck = puckPool.acquire();
+            readBallSnapshot(buffer, puck, turboImage);
+            gameObjects().addGameObject(puck);
+        }
+        fallingHeartPool.reclaimIf(heart -> true, heart -> gameObjects().removeGameObject(heart));
+        int fallingHearts = buffer.getInt();
+        for (int i = 0; i < fallingHearts; i++) {
+            Heart heart = fallingHeartPool.acquire();
+            heart.setTopLeftCorner(new Vector2(buffer.getFloat(), buffer.getFloat()));
+            heart.setVelocity(new Vector2(buffer.getFloat(), buffer.getFloat()));
+            gameObjects().addGameObject(heart);
+        }
+        if (extraPaddle != null) {
+            gameObjects().removeGameObject(extraPaddle);
+            extraPaddlePool.release(extraPaddle);
+            extraPaddle = null;
+        }
+        AdditionalPaddle savedExtraPaddle = extraPaddlePool.acquire();
+        if (readPaddleSnapshot(buffer, savedExtraPaddle)) {
+            extraPaddle = savedExtraPaddle;
+            gameObjects().addGameObject(extraPaddle);
+        } else {
+            extraPaddlePool.release(savedExtraPaddle);
+        }
+        effectScheduler.readState(buffer, this::getEffectTarget);
+        restoreLives(savedLives);
+        worldCommands.clear();
+        renderInterpolator.clear();
+        accumulator = 0;
+    }
+
+    /**
+     * walks a state written by writeSnapshot without restoring anything, checking its length, the
+     * counts and the ids it holds
+     * @param buffer the state, at its position; moved past the state
+     * @return true if readSnapshot can restore the state
+     * @throws BufferUnderflowException if the state is truncated
+     */
+    private boolean checkSnapshot(ByteBuffer buffer) {
+        buffer.position(buffer.position() + 4 * Long.BYTES);
+        int savedLives = buffer.getInt();
+        buffer.position(buffer.position() + 2 * Integer.BYTES + 1 + strategyCounts.length * Long.BYTES);
+        int scroll = buffer.getInt();
+        if (savedLives < 0 || savedLives > hearts.length || scroll < 0
+                || scroll >= Math.max(1, brickField.getRows())) {
+            return false;
+        }
+        buffer.position(buffer.position() + brickField.getStateSize() - brickField.size());
+        for (int i = 0; i < brickField.size(); i++) {
+            if (!LevelFile.isKnownCode(buffer.get())) {
+                return false;
+            }
+        }
+        buffer.position(buffer.position() + SNAPSHOT_PADDLE_BYTES + SNAPSHOT_BALL_BYTES);
+        int pucks = buffer.getInt();
+        if (pucks < 0 || pucks > buffer.remaining() / SNAPSHOT_BALL_BYTES) {
+            return false;
+        }
+        buffer.position(buffer.position() + pucks * SNAPSHOT_BALL_BYTES);
+        int fallingHearts = buffer.getInt();
+        if (fallingHearts < 0 || fallingHearts > buffer.remaining() / SNAPSHOT_HEART_BYTES) {
+            return false;
+        }
+        buffer.position(buffer.position() + fallingHearts * SNAPSHOT_HEART_BYTES);
+        boolean hasExtraPaddle = buffer.get() != 0;
+        buffer.position(buffer.position() + SNAPSHOT_PADDLE_BYTES - 1);
+        boolean effectsValid = EffectScheduler.checkState(buffer, id -> switch (id) {
+            case EFFECT_TARGET_BALL, EFFECT_TARGET_PADDLE -> true;
+            case EFFECT_TARGET_EXTRA_PADDLE -> hasExtraPaddle;
+            default -> id >= EFFECT_TARGET_FIRST_PUCK && id - EFFECT_TARGET_FIRST_PUCK < pucks;
+        });
+        return effectsValid && !buffer.hasRemaining();
+    }
+
+    /**
+     * writes a paddle to a snapshot
+     * @param buffer      the snapshot
+     * @param savedPaddle the paddle, or null if it is not in the game
+     */
+    private void writePaddleSnapshot(ByteBuffer buffer, Paddle savedPaddle) {
+        buffer.put((byte) (savedPaddle == null ? 0 : 1));
+        buffer.putFloat(savedPaddle == null ? 0 : savedPaddle.getTopLeftCorner().x());
+        buffer.putFloat(savedPaddle == null ? 0 : savedPaddle.getTopLeftCorner().y());
+        buffer.putInt(savedPaddle == null ? 0 : savedPaddle.getWidthSteps());
+    }
+
+    /**
+     * reads a paddle from a snapshot, placing it if it was in the game
+     * @param buffer         the snapshot
+     * @param restoredPaddle the paddle to place
+     * @return true if the paddle was in the game
+     */
+    private boolean readPaddleSnapshot(ByteBuffer buffer, Paddle restoredPaddle) {
+        boolean present = buffer.get() != 0;
+        float x = buffer.getFloat();
+        float y = buffer.getFloat();
+        int widthSteps = buffer.getInt();
+        if (!present) {
+            return false;
+        }
+        restoredPaddle.setWidthSteps(widthSteps);
+        restoredPaddle.setTopLeftCorner(new Vector2(x, y));
+        restoredPaddle.setVelocity(Vector2.ZERO);
+        return true;
+    }
+
+    /**
+     * writes a ball or a puck to a snapshot
+     * @param buffer    the snapshot
+     * @param savedBall the ball
+     */
+    private void writeBallSnapshot(ByteBuffer buffer, Ball savedBall) {
+        buffer.putFloat(savedBall.getTopLeftCorner().x()).putFloat(savedBall.getTopLeftCorner().y())
+                .putFloat(savedBall.getVelocity().x()).putFloat(savedBall.getVelocity().y());
+        buffer.put((byte) (savedBall.getIsTurbo() ? 1 : 0)).putFloat(savedBall.getGravity())
+                .putFloat(savedBall.getPendingFallSpeed());
+    }
+
+    /**
+     * reads a ball or a puck from a snapshot
+     * @param buffer       the snapshot
+     * @param restoredBall the ball to restore
+     * @param turboImage   the image of a ball in turbo mode
+     */
+    private void readBallSnapshot(ByteBuffer buffer, Ball restoredBall, Renderable turboImage) {
+        restoredBall.setTopLeftCorner(new Vector2(buffer.getFloat(), buffer.getFloat()));
+        restoredBall.setVelocity(new Vector2(buffer.getFloat(), buffer.getFloat()));
+        restoredBall.setTurbo(buffer.get() != 0, turboImage);
+        restoredBall.setGravity(buffer.getFloat());
+        restoredBall.setPendingFallSpeed(buffer.getFloat());
+        restoredBall.storePreviousPosition();
+    }
+
+    /**
+     * replaces the hearts of the lives display with the given number of lives
+     * @param lives the number of lives left
+     */
+    private void restoreLives(int lives) {
+        for (int i = 0; i < livesLeft; i++) {
+            gameObjects().removeGameObject(hearts[i], Layer.UI);
+            hearts[i] = null;
+        }
+        livesLeft = 0;
+        for (int i = 0; i < lives; i++) {
+            addHeartToLivesCollection();
+        }
+        updateLifeNumericCounter();
+    }
+
+    /**
+     * identifies the target of an effect in a snapshot
+     * @param target the ball, a puck or a paddle
+     * @return the id of the target
+     */
+    private int getEffectTargetId(EffectTarget target) {
+        if (target == ball) {
+            return EFFECT_TARGET_BALL;
+        } else if (target == paddle) {
+            return EFFECT_TARGET_PADDLE;
+        } else if (target == extraPaddle) {
+            return EFFECT_TARGET_EXTRA_PADDLE;
+        }
+        for (int i = 0; i < puckPool.getLiveCount(); i++) {
+            if (puckPool.getLive(i) == target) {
+                return EFFECT_TARGET_FIRST_PUCK + i;
+            }
+        }
+        throw new IllegalStateException("Effect on an object that is not in the game");
+    }
+
+    /**
+     * finds the target of an effect restored from a snapshot, once the objects are restored
+     * @param id the id of the target
+     * @return the ball, puck or paddle
+     */
+    private EffectTarget getEffectTarget(int id) {
+        return switch (id) {
+            case EFFECT_TARGET_BALL -> ball;
+            case EFFECT_TARGET_PADDLE -> paddle;
+            case EFFECT_TARGET_EXTRA_PADDLE -> extraPaddle;
+            default -> puckPool.getLive(id - EFFECT_TARGET_FIRST_PUCK);
+        };
+    }
+
+    /**
+     * Returns the metrics of the game: frame durations, game loop counters and gauges.
+     * @return The game's metrics.
+     */
+    public GameMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns how many times strategies of the given kind fired since the game started.
+     * @param type The kind of strategy.
+     * @return The number of times it fired.
+     */
+    public long getStrategyCount(StrategyType type) {
+        return strategyCounts[type.ordinal()];
+    }
+
+    /**
+     * Returns the number of lives the player has left.
+     * @return The number of lives left.
+     */
+    public int getLivesLeft() {
+        return livesLeft;
+    }
+
     /**
      * update numeric lives counter according to number of lives player gained/lost
      */
@@ -358,48 +1437,322 @@ public class BrickerGameManager extends GameManager {
     }
 
     /**
-     * reset ball to the beginning position of
+     * reset ball to the beginning position of the game, ending the effects on it so the new ball
+     * starts at its normal speed, without gravity or turbo
      */
     private void resetBall() {
+        effectScheduler.cancelAll(ball);
         ball.setCenter(windowDimensions.mult(0.5f));
         float ballVelX = BALL_SPEED;
         float ballVelY= BALL_SPEED;
-        Random rand = new Random();
-        if (rand.nextBoolean()){
+        if (launchRandom.nextBoolean()){
             ballVelX *= -1;
         }
         ball.setVelocity(new Vector2(ballVelX, ballVelY));
     }
 
     /**
-     * Removes an object from the game.
+     * Removes an object from the game after the physics step.
      * @param object The object to remove.
      */
     public void removeObjectFromGameObject(GameObject object){
-        this.gameObjects().removeGameObject(object);
+        worldCommands.remove(object, Layer.DEFAULT);
     }
 
     /**
-     * Adds an object to the game.
+     * Adds an object to the game after the physics step.
      * @param object The object to add.
      */
     public void addObjectToGameObjects(GameObject object){
-        this.gameObjects().addGameObject(object);
+        worldCommands.add(object, Layer.DEFAULT);
+    }
+
+    /**
+     * Spawns a puck from the pool. In endless mode no more pucks are spawned than the pool
+     * pre-allocates, so a long game cannot pile up pucks.
+     * @param topLeftCorner The position of the new puck.
+     * @param velocity      The initial velocity of the new puck.
+     */
+    public void spawnPuck(Vector2 topLeftCorner, Vector2 velocity) {
+        if (endless && puckPool.getLiveCount() >= PREALLOCATED_PUCKS) {
+            return;
+        }
+        Ball puck = puckPool.acquire();
+        puck.setTopLeftCorner(topLeftCorner);
+        puck.storePreviousPosition();
+        puck.setVelocity(velocity);
+        addObjectToGameObjects(puck);
+    }
+
+    /**
+     * Spawns a falling heart from the pool.
+     * @param topLeftCorner The position of the new heart.
+     * @param velocity      The falling velocity of the new heart.
+     */
+    public void spawnFallingHeart(Vector2 topLeftCorner, Vector2 velocity) {
+        Heart heart = fallingHeartPool.acquire();
+        heart.setTopLeftCorner(topLeftCorner);
+        heart.setVelocity(velocity);
+        addObjectToGameObjects(heart);
+    }
+
+    /**
+     * Spawns the extra paddle from the pool, unless one is already in the game. The paddle leaves
+     * the game when its EXTRA_PADDLE effect ends.
+     * @param topLeftCorner The position of the extra paddle.
+     */
+    public void spawnExtraPaddle(Vector2 topLeftCorner) {
+        if (extraPaddle != null) {
+            return;
+        }
+        AdditionalPaddle newPaddle = extraPaddlePool.acquire();
+        newPaddle.setTopLeftCorner(topLeftCorner);
+        newPaddle.setVelocity(Vector2.ZERO);
+        extraPaddle = newPaddle;
+        addObjectToGameObjects(newPaddle);
+        startEffect(EffectType.EXTRA_PADDLE, newPaddle);
+    }
+
+    /**
+     * Collects a falling heart that reached a paddle: the player gains a life and the heart
+     * returns to the pool. A heart touching both paddles in the same step is collected once.
+     * @param heart The collected heart.
+     */
+    public void collectFallingHeart(Heart heart) {
+        if (fallingHeartPool.release(heart)) {
+            removeObjectFromGameObject(heart);
+            worldCommands.gainLife();
+        }
+    }
+
+    /**
+     * Removes a falling heart from the game and returns it to the pool.
+     * @param heart The heart that fell out of the window.
+     */
+    public void reclaimFallingHeart(Heart heart) {
+        if (fallingHeartPool.release(heart)) {
+            removeObjectFromGameObject(heart);
+        }
+    }
+
+    /**
+     * Removes the extra paddle from the game and returns it to the pool.
+     * @param additionalPaddle The extra paddle that finished its lifetime.
+     */
+    public void reclaimExtraPaddle(AdditionalPaddle additionalPaddle) {
+        if (extraPaddlePool.release(additionalPaddle)) {
+            effectScheduler.cancelAll(additionalPaddle);
+            extraPaddle = null;
+            removeObjectFromGameObject(additionalPaddle);
+        }
+    }
+
+    /**
+     * Applies an effect to a ball or a paddle and schedules its end, after the effect's time or
+     * number of hits. Effects of the same kind stack: speed factors multiply, gravity adds up and
+     * width steps add up.
+     * @param type   The kind of effect.
+     * @param target The ball or paddle under the effect.
+     */
+    public void startEffect(EffectType type, EffectTarget target) {
+        switch (type) {
+            case TURBO -> {
+                Ball turboBall = (Ball) target;
+                turboBall.scaleVelocity(TURBO_SPEED_FACTOR);
+                turboBall.setTurbo(true, assetCache.readImage(TURBO_IMG_PATH, true));
+            }
+            case SLOW -> scaleSpeed((Ball) target, SLOW_SPEED_FACTOR);
+            case QUICKEN -> scaleSpeed((Ball) target, QUICKEN_SPEED_FACTOR);
+            case GRAVITY -> ((Ball) target).setGravity(((Ball) target).getGravity() + GRAVITY_ACCELERATION);
+            case WIDEN -> ((Paddle) target).setWidthSteps(((Paddle) target).getWidthSteps() + 1);
+            case NARROW -> ((Paddle) target).setWidthSteps(((Paddle) target).getWidthSteps() - 1);
+            case EXTRA_PADDLE -> {
+                // the paddle was spawned by spawnExtraPaddle
+            }
+        }
+        int steps = type.getSeconds() > 0 ? Math.max(1, Math.round(type.getSeconds() / fixedStep)) : 0;
+        effectScheduler.schedule(type, target, steps, type.getHits());
+    }
+
+    /**
+     * undoes an effect that ended
+     * @param type   the kind of effect
+     * @param target the ball or paddle that was under the effect
+     */
+    private void endEffect(EffectType type, EffectTarget target) {
+        switch (type) {
+            case TURBO -> {
+                Ball turboBall = (Ball) target;
+                turboBall.scaleVelocity(1 / TURBO_SPEED_FACTOR);
+                turboBall.setTurbo(false, null);
+            }
+            case SLOW -> scaleSpeed((Ball) target, 1 / SLOW_SPEED_FACTOR);
+            case QUICKEN -> scaleSpeed((Ball) target, 1 / QUICKEN_SPEED_FACTOR);
+            case GRAVITY -> ((Ball) target).setGravity(((Ball) target).getGravity() - GRAVITY_ACCELERATION);
+            case WIDEN -> ((Paddle) target).setWidthSteps(((Paddle) target).getWidthSteps() - 1);
+            case NARROW -> ((Paddle) target).setWidthSteps(((Paddle) target).getWidthSteps() + 1);
+            case EXTRA_PADDLE -> reclaimExtraPaddle((AdditionalPaddle) target);
+        }
+    }
+
+    /**
+     * multiplies the speed of a ball, keeping its direction
+     * @param speedBall the ball
+     * @param factor    the speed factor
+     */
+    private void scaleSpeed(Ball speedBall, float factor) {
+        speedBall.scaleVelocity(factor);
+    }
+
+    /**
+     * Returns the scheduler of the timed effects in the game.
+     * @return The effect scheduler.
+     */
+    public EffectScheduler getEffectScheduler() {
+        return effectScheduler;
+    }
+
+    /**
+     * Returns the number of pucks, falling hearts and extra paddles currently in the game.
+     * @return The number of live spawned objects.
+     */
+    public int getLiveSpawnCount() {
+        return puckPool.getLiveCount() + fallingHeartPool.getLiveCount() + extraPaddlePool.getLiveCount();
+    }
+
+    /**
+     * Returns the number of pucks, falling hearts and extra paddles waiting in their pools.
+     * @return The number of pooled spawned objects.
+     */
+    public int getPooledSpawnCount() {
+        return puckPool.getPooledCount() + fallingHeartPool.getPooledCount()
+                + extraPaddlePool.getPooledCount();
     }
 
     /**
      * The bricker.main method for running the game.
-     * @param args Command-line arguments.
+     * @param args Command-line arguments: number of brick lines, bricks per line and optionally
+     *             the seed of the game. "--record file" records the session's input to a file,
+     *             "--replay file" replays a recorded session in real time, "--metrics file"
+     *             writes a snapshot of the game's metrics to a file every second, "--rate hz" sets
+     *             the number of simulation steps per second (120 by default), "--spectate port"
+     *             broadcasts the game to spectators connecting to the given loopback port,
+     *             "--level file" plays the level of a level file instead of a random board,
+     *             "--endless" plays in endless mode, "--bot good" or "--bot bad" lets an
+     *             autopilot play, "--save file" saves the game to a file whenever S is pressed and
+     *             "--load file" resumes a game saved to a file. "--record" and "--bot" cannot be
+     *             combined.
+     * @throws IOException If the recording to replay cannot be read.
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         BrickerGameManager manager;
-        if (args.length < USER_ARGS) {
-            manager = new BrickerGameManager("Bricker", new Vector2(WINDOW_WIDTH, WINDOW_HEIGHT),
-                    DEFAULT_BRICK_LINES_NUM, DEFAULT_BRICKS_PER_LINE);
+        String recordPath = null;
+        String metricsPath = null;
+        String savePath = null;
+        String loadPath = null;
+        int spectatorPort = -1;
+        boolean endless = false;
+        String bot = null;
+        LevelFile level = null;
+        int simulationRate = DEFAULT_SIMULATION_RATE;
+        List<String> positionalArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals(REPLAY_FLAG) && i + 1 < args.length) {
+                InputRecording recording = InputRecording.read(Paths.get(args[i + 1]));
+                LevelFile recordedLevel = recording.openLevel();
+                if (recordedLevel != null) {
+                    manager = new BrickerGameManager(WINDOW_TITLE, new Vector2(WINDOW_WIDTH, WINDOW_HEIGHT),
+                            recordedLevel, recording.getSeed());
+                } else {
+                    manager = new BrickerGameManager(WINDOW_TITLE, new Vector2(WINDOW_WIDTH, WINDOW_HEIGHT),
+                            recording.getBrickLines(), recording.getBricksPerLine(), recording.getSeed());
+                }
+                manager.setSimulationRate(recording.getSimulationRate());
+                manager.setEndless(recording.isEndless());
+                manager.setInputReplay(new InputReplay(recording));
+                manager.run();
+                return;
+            } else if (args[i].equals(RECORD_FLAG) && i + 1 < args.length) {
+                recordPath = args[++i];
+            } else if (args[i].equals(METRICS_FLAG) && i + 1 < args.length) {
+                metricsPath = args[++i];
+            } else if (args[i].equals(RATE_FLAG) && i + 1 < args.length) {
+                simulationRate = Integer.parseInt(args[++i]);
+                if (simulationRate <= 0) {
+                    throw new IllegalArgumentException(RATE_FLAG + " must be positive, got " + simulationRate);
+                }
+            } else if (args[i].equals(SPECTATE_FLAG) && i + 1 < args.length) {
+                spectatorPort = Integer.parseInt(args[++i]);
+            } else if (args[i].equals(BOT_FLAG) && i + 1 < args.length) {
+                bot = args[++i];
+            } else if (args[i].equals(SAVE_FLAG) && i + 1 < args.length) {
+                savePath = args[++i];
+            } else if (args[i].equals(LOAD_FLAG) && i + 1 < args.length) {
+                loadPath = args[++i];
+            } else if (args[i].equals(ENDLESS_FLAG)) {
+                endless = true;
+            } else if (args[i].equals(LEVEL_FLAG) && i + 1 < args.length) {
+                level = LevelFile.open(Paths.get(args[++i]));
+            } else {
+                positionalArgs.add(args[i]);
+            }
+        }
+        if (recordPath != null && bot != null) {
+            throw new IllegalArgumentException(RECORD_FLAG + " cannot record " + BOT_FLAG + " play");
+        }
+        args = positionalArgs.toArray(new String[0]);
+        long seed = args.length > SEED_ARG ? Long.parseLong(args[SEED_ARG]) : System.nanoTime();
+        if (level != null) {
+            manager = new BrickerGameManager(WINDOW_TITLE, new Vector2(WINDOW_WIDTH, WINDOW_HEIGHT), level, seed);
+        } else if (args.length < USER_ARGS) {
+            manager = new BrickerGameManager(WINDOW_TITLE, new Vector2(WINDOW_WIDTH, WINDOW_HEIGHT),
+                    DEFAULT_BRICK_LINES_NUM, DEFAULT_BRICKS_PER_LINE, seed);
         } else {
-            manager = new BrickerGameManager("Bricker", new Vector2(WINDOW_WIDTH, WINDOW_HEIGHT),
-                    Integer.parseInt(args[BRICK_LINES_NUM_ARG]), Integer.parseInt(args[BRICKS_PER_LINE_ARG]));
+            manager = new BrickerGameManager(WINDOW_TITLE, new Vector2(WINDOW_WIDTH, WINDOW_HEIGHT),
+                    Integer.parseInt(args[BRICK_LINES_NUM_ARG]), Integer.parseInt(args[BRICKS_PER_LINE_ARG]),
+                    seed);
+        }
+        manager.setSimulationRate(simulationRate);
+        manager.setEndless(endless);
+        if (recordPath != null) {
+            recordSession(manager, Paths.get(recordPath));
+        }
+        if (savePath != null) {
+            manager.setSavePath(Paths.get(savePath));
+        }
+        if (loadPath != null) {
+            manager.setLoadPath(Paths.get(loadPath));
+        }
+        if (bot != null) {
+            manager.setAutopilot(bot.equals(GOOD_BOT) ? Autopilot.good(seed) : Autopilot.bad(seed));
+        }
+        if (metricsPath != null) {
+            manager.getMetrics().startExport(Paths.get(metricsPath), METRICS_EXPORT_PERIOD_MILLIS);
+        }
+        if (spectatorPort >= 0) {
+            SpectatorFeed spectatorFeed = new SpectatorFeed(spectatorPort);
+            spectatorFeed.start();
+            manager.setSpectatorFeed(spectatorFeed);
         }
         manager.run();
     }
+
+    /**
+     * records the paddle input of the whole session and writes it to a file when the program exits
+     * @param manager the game manager of the session
+     * @param path    the path of the recording file
+     */
+    private static void recordSession(BrickerGameManager manager, Path path) {
+        InputRecorder recorder = new InputRecorder(
+                new InputRecording(manager.getSeed(), manager.brickLines, manager.bricksPerLine,
+                        manager.getSimulationRate(), manager.isEndless(), manager.getLevel()));
+        manager.setInputRecorder(recorder);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                recorder.getRecording().write(path);
+            } catch (IOException e) {
+                System.err.println("Failed to write input recording: " + e.getMessage());
+            }
+        }));
+    }
 }
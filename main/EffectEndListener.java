@@ -0,0 +1,17 @@
+package bricker.main;
+
+/**
+ * EffectEndListener is notified by the EffectScheduler when an effect ends, so it can undo the
+ * effect on its target.
+ * @author Batia
+ */
+@FunctionalInterface
+public interface EffectEndListener {
+    /**
+     * Called once when an effect expires or is cancelled. The effect is already unscheduled, so
+     * the listener may schedule or cancel effects itself.
+     * @param type   The kind of effect that ended.
+     * @param target The object the effect was on.
+     */
+    void onEffectEnd(EffectType type, EffectTarget target);
+}
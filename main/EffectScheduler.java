@@ -0,0 +1,351 @@
+package bricker.main;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * EffectScheduler tracks the lifetime of every timed effect in a game. An effect expires after a
+ * number of simulation steps, after a number of hits on its target, or after whichever of the
+ * two comes first. When it expires or is cancelled, the listener undoes it. Effects on the same
+ * target are independent, so they stack.
+ * <p>
+ * Effects expiring with time sit in a hashed timer wheel of WHEEL_SLOTS buckets indexed by their
+ * expiry step. Every step visits a single bucket, which holds about 1 / WHEEL_SLOTS of the
+ * effects, so thousands of effects cost a handful of comparisons per step. Every effect is also
+ * linked into a list of its target's effects, whose head the target keeps, so a hit or a target
+ * leaving the game only visits that target's effects. Effects live in parallel arrays linked by
+ * index, so scheduling, cancelling and expiring are O(1) and allocate nothing once the arrays
+ * have grown to the number of concurrent effects.
+ * @author Batia
+ */
+public class EffectScheduler {
+    /** The index marking the end of a list of effects. */
+    public static final int NONE = -1;
+    private static final int WHEEL_BITS = 8;
+    private static final int WHEEL_SLOTS = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SLOTS - 1;
+    private static final long NEVER = Long.MAX_VALUE;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int EFFECT_STATE_BYTES = 1 + 3 * Integer.BYTES;
+    private static final EffectType[] EFFECT_TYPES = EffectType.values();
+    private final EffectEndListener listener;
+    private final int[] buckets = new int[WHEEL_SLOTS];
+    // per effect
+    private EffectType[] types = new EffectType[0];
+    private EffectTarget[] targets = new EffectTarget[0];
+    private long[] expiry = new long[0];
+    private int[] hitsLeft = new int[0];
+    private int[] generations = new int[0];
+    private int[] wheelNext = new int[0];
+    private int[] wheelPrev = new int[0];
+    private int[] targetNext = new int[0];
+    private int[] targetPrev = new int[0];
+    private int freeHead = NONE;
+    // ended effects waiting for the listener, linked through wheelNext
+    private int dueHead = NONE;
+    private int activeCount = 0;
+    private long step = 0;
+
+    /**
+     * Constructs a new scheduler without effects.
+     * @param listener Notified whenever an effect ends.
+     */
+    public EffectScheduler(EffectEndListener listener) {
+        this.listener = listener;
+        Arrays.fill(buckets, NONE);
+    }
+
+    /**
+     * Schedules an effect on a target. The caller has already applied the effect.
+     * @param type   The kind of effect.
+     * @param target The object under the effect.
+     * @param steps  The number of simulation steps the effect lasts, 0 if it does not expire with time.
+     * @param hits   The number of hits on the target the effect lasts, 0 if it does not expire with hits.
+     * @return A handle to cancel the effect with.
+     */
+    public long schedule(EffectType type, EffectTarget target, int steps, int hits) {
+        if (steps <= 0 && hits <= 0) {
+            throw new IllegalArgumentException("An effect must expire after some steps or hits");
+        }
+        int effect = allocate();
+        types[effect] = type;
+        targets[effect] = target;
+        hitsLeft[effect] = Math.max(0, hits);
+        int head = target.getEffectHead();
+        targetPrev[effect] = NONE;
+        targetNext[effect] = head;
+        if (head != NONE) {
+            targetPrev[head] = effect;
+        }
+        target.setEffectHead(effect);
+        if (steps > 0) {
+            expiry[effect] = step + steps;
+            int bucket = (int) (expiry[effect] & WHEEL_MASK);
+            wheelPrev[effect] = NONE;
+            wheelNext[effect] = buckets[bucket];
+            if (buckets[bucket] != NONE) {
+                wheelPrev[buckets[bucket]] = effect;
+            }
+            buckets[bucket] = effect;
+        } else {
+            expiry[effect] = NEVER;
+        }
+        activeCount++;
+        return ((long) generations[effect] << Integer.SIZE) | effect;
+    }
+
+    /**
+     * Advances the scheduler by one simulation step, ending the effects that expire with it.
+     */
+    public void advance() {
+        step++;
+        int effect = buckets[(int) (step & WHEEL_MASK)];
+        while (effect != NONE) {
+            int next = wheelNext[effect];
+            // the bucket also holds effects expiring whole turns of the wheel later
+            if (expiry[effect] <= step) {
+                end(effect);
+            }
+            effect = next;
+        }
+        notifyEnded();
+    }
+
+    /**
+     * Counts a hit on a target, ending its effects that expire with this hit.
+     * @param target The object that was hit.
+     */
+    public void hit(EffectTarget target) {
+        int effect = target.getEffectHead();
+        while (effect != NONE) {
+            int next = targetNext[effect];
+            if (hitsLeft[effect] > 0 && --hitsLeft[effect] == 0) {
+                end(effect);
+            }
+            effect = next;
+        }
+        notifyEnded();
+    }
+
+    /**
+     * Ends an effect before it expires.
+     * @param handle The handle returned when the effect was scheduled.
+     * @return true if the effect was cancelled, false if it had already ended.
+     */
+    public boolean cancel(long handle) {
+        int effect = (int) handle;
+        if (effect < 0 || effect >= types.length || types[effect] == null
+                || generations[effect] != (int) (handle >>> Integer.SIZE)) {
+            return false;
+        }
+        end(effect);
+        notifyEnded();
+        return true;
+    }
+
+    /**
+     * Ends every effect on a target, e.g. when it leaves the game.
+     * @param target The object.
+     */
+    public void cancelAll(EffectTarget target) {
+        while (target.getEffectHead() != NONE) {
+            end(target.getEffectHead());
+        }
+        notifyEnded();
+    }
+
+    /**
+     * Drops every effect without notifying the listener, e.g. before restoring a saved game.
+     */
+    public void clear() {
+        for (int effect = 0; effect < types.length; effect++) {
+            if (types[effect] != null) {
+                targets[effect].setEffectHead(NONE);
+                release(effect);
+            }
+        }
+        Arrays.fill(buckets, NONE);
+        dueHead = NONE;
+    }
+
+    /**
+     * Returns the number of effects currently scheduled.
+     * @return The number of active effects.
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * Returns the number of bytes writeState writes.
+     * @return The size of the scheduler's state.
+     */
+    public int getStateSize() {
+        return Integer.BYTES + activeCount * EFFECT_STATE_BYTES;
+    }
+
+    /**
+     * Writes every active effect: its kind, its target and how long it has left.
+     * @param buffer    The buffer to write to, at its position.
+     * @param targetIds Identifies a target in the saved game.
+     */
+    public void writeState(ByteBuffer buffer, ToIntFunction<EffectTarget> targetIds) {
+        buffer.putInt(activeCount);
+        for (int effect = 0; effect < types.length; effect++) {
+            if (types[effect] != null) {
+                buffer.put((byte) types[effect].ordinal());
+                buffer.putInt(targetIds.applyAsInt(targets[effect]));
+                buffer.putInt(expiry[effect] == NEVER ? 0 : (int) (expiry[effect] - step));
+                buffer.putInt(hitsLeft[effect]);
+            }
+        }
+    }
+
+    /**
+     * Checks effects written by writeState before any of them is read, moving past them.
+     * @param buffer       The buffer to check, at its position.
+     * @param validTargets Tells whether an id identifies a target in the saved game.
+     * @return true if readState can read the effects; false if the buffer is too short, or an
+     * effect is of an unknown kind, on an unknown target or never expires.
+     */
+    public static boolean checkState(ByteBuffer buffer, IntPredicate validTargets) {
+        if (buffer.remaining() < Integer.BYTES) {
+            return false;
+        }
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / EFFECT_STATE_BYTES) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            int type = buffer.get();
+            int target = buffer.getInt();
+            int steps = buffer.getInt();
+            int hits = buffer.getInt();
+            if (type < 0 || type >= EFFECT_TYPES.length || !validTargets.test(target)
+                    || (steps <= 0 && hits <= 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replaces every effect with the effects written by writeState, without notifying the
+     * listener. The targets are expected to already be in their saved state, and the effects to
+     * have passed checkState.
+     * @param buffer  The buffer to read from, at its position.
+     * @param targets Finds a target from its id in the saved game.
+     */
+    public void readState(ByteBuffer buffer, IntFunction<EffectTarget> targets) {
+        clear();
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            EffectType type = EFFECT_TYPES[buffer.get()];
+            EffectTarget target = targets.apply(buffer.getInt());
+            int steps = buffer.getInt();
+            int hits = buffer.getInt();
+            schedule(type, target, steps, hits);
+        }
+    }
+
+    /**
+     * Unschedules an effect and queues it for the listener.
+     * @param effect The index of the effect.
+     */
+    private void end(int effect) {
+        if (expiry[effect] != NEVER) {
+            int bucket = (int) (expiry[effect] & WHEEL_MASK);
+            unlink(effect, wheelNext, wheelPrev);
+            if (buckets[bucket] == effect) {
+                buckets[bucket] = wheelNext[effect];
+            }
+        }
+        EffectTarget target = targets[effect];
+        unlink(effect, targetNext, targetPrev);
+        if (target.getEffectHead() == effect) {
+            target.setEffectHead(targetNext[effect]);
+        }
+        wheelNext[effect] = dueHead;
+        dueHead = effect;
+    }
+
+    /**
+     * Notifies the listener of every ended effect. The effects are released first, so the
+     * listener may schedule new ones.
+     */
+    private void notifyEnded() {
+        while (dueHead != NONE) {
+            int effect = dueHead;
+            dueHead = wheelNext[effect];
+            EffectType type = types[effect];
+            EffectTarget target = targets[effect];
+            release(effect);
+            listener.onEffectEnd(type, target);
+        }
+    }
+
+    /**
+     * Removes an effect from a doubly linked list, leaving the list's head to the caller.
+     * @param effect The index of the effect.
+     * @param next   The links to the next effects of the list.
+     * @param prev   The links to the previous effects of the list.
+     */
+    private static void unlink(int effect, int[] next, int[] prev) {
+        if (prev[effect] != NONE) {
+            next[prev[effect]] = next[effect];
+        }
+        if (next[effect] != NONE) {
+            prev[next[effect]] = prev[effect];
+        }
+    }
+
+    /**
+     * Takes a free effect index, growing the arrays if none is free.
+     * @return The index.
+     */
+    private int allocate() {
+        if (freeHead == NONE) {
+            grow();
+        }
+        int effect = freeHead;
+        freeHead = targetNext[effect];
+        return effect;
+    }
+
+    /**
+     * Frees an effect index. Its generation changes, so stale handles no longer cancel it.
+     * @param effect The index of the effect.
+     */
+    private void release(int effect) {
+        types[effect] = null;
+        targets[effect] = null;
+        generations[effect]++;
+        targetNext[effect] = freeHead;
+        freeHead = effect;
+        activeCount--;
+    }
+
+    /**
+     * Doubles the capacity of the effect arrays and frees the new indices.
+     */
+    private void grow() {
+        int oldCapacity = types.length;
+        int capacity = Math.max(INITIAL_CAPACITY, oldCapacity * 2);
+        types = Arrays.copyOf(types, capacity);
+        targets = Arrays.copyOf(targets, capacity);
+        expiry = Arrays.copyOf(expiry, capacity);
+        hitsLeft = Arrays.copyOf(hitsLeft, capacity);
+        generations = Arrays.copyOf(generations, capacity);
+        wheelNext = Arrays.copyOf(wheelNext, capacity);
+        wheelPrev = Arrays.copyOf(wheelPrev, capacity);
+        targetNext = Arrays.copyOf(targetNext, capacity);
+        targetPrev = Arrays.copyOf(targetPrev, capacity);
+        for (int effect = capacity - 1; effect >= oldCapacity; effect--) {
+            targetNext[effect] = freeHead;
+            freeHead = effect;
+        }
+    }
+}
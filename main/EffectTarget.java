@@ -0,0 +1,21 @@
+package bricker.main;
+
+/**
+ * A game object that timed effects can be scheduled on. The object keeps the head of the list of
+ * its own effects, which the EffectScheduler maintains. This lets a hit, or the object leaving
+ * the game, reach the object's effects without searching the others.
+ * @author Batia
+ */
+public interface EffectTarget {
+    /**
+     * Returns the first effect on this object.
+     * @return The scheduler's index of the effect, EffectScheduler.NONE if there is none.
+     */
+    int getEffectHead();
+
+    /**
+     * Sets the first effect on this object. Only called by the EffectScheduler.
+     * @param effectHead The scheduler's index of the effect, EffectScheduler.NONE if there is none.
+     */
+    void setEffectHead(int effectHead);
+}
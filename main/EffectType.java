@@ -0,0 +1,113 @@
+package bricker.main;
+
+import bricker.brick_strategies.StrategyType;
+
+/**
+ * The kinds of timed effects a game object can be under, and how long each one lasts: a number
+ * of seconds, a number of hits, or both, whichever comes first. Turbo and the extra paddle come
+ * from their own strategies. The other effects are started by effect bricks. Their strategy code
+ * has the EFFECT bit set and holds the effect's index in its low bits, so effect bricks do not
+ * combine with other strategies.
+ * @author Batia
+ */
+public enum EffectType {
+    /** The main ball is faster and red, until its seventh bounce. */
+    TURBO(0, 7, null),
+    /** The extra paddle stays in the game until a ball hits it four times. */
+    EXTRA_PADDLE(0, 4, null),
+    /** The ball that hit the brick slows down. */
+    SLOW(5, 0, "assets/slow.png"),
+    /** The ball that hit the brick speeds up. */
+    QUICKEN(5, 0, "assets/quicken.png"),
+    /** The main paddle grows wider. */
+    WIDEN(8, 0, "assets/buffWiden.png"),
+    /** The main paddle shrinks. */
+    NARROW(8, 0, "assets/buffNarrow.png"),
+    /** The ball that hit the brick is pulled down. */
+    GRAVITY(4, 0, "assets/gravity.png");
+
+    private static final EffectType[] BRICK_EFFECTS = {SLOW, QUICKEN, WIDEN, NARROW, GRAVITY};
+    private final float seconds;
+    private final int hits;
+    private final String iconPath;
+
+    /**
+     * Constructs an effect type.
+     * @param seconds  How long the effect lasts, 0 if it does not expire with time.
+     * @param hits     How many hits the effect lasts, 0 if it does not expire with hits.
+     * @param iconPath The image drawn on bricks starting the effect, null if no brick does.
+     */
+    EffectType(float seconds, int hits, String iconPath) {
+        this.seconds = seconds;
+        this.hits = hits;
+        this.iconPath = iconPath;
+    }
+
+    /**
+     * Returns how long the effect lasts.
+     * @return The duration in seconds, 0 if the effect does not expire with time.
+     */
+    public float getSeconds() {
+        return seconds;
+    }
+
+    /**
+     * Returns how many hits the effect lasts.
+     * @return The number of hits, 0 if the effect does not expire with hits.
+     */
+    public int getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the image drawn on bricks starting the effect.
+     * @return The path of the image, null if no brick starts the effect.
+     */
+    public String getIconPath() {
+        return iconPath;
+    }
+
+    /**
+     * Returns the number of effects started by effect bricks.
+     * @return The number of brick effects.
+     */
+    public static int getBrickEffectCount() {
+        return BRICK_EFFECTS.length;
+    }
+
+    /**
+     * Returns an effect started by effect bricks.
+     * @param index The index of the effect, between 0 and getBrickEffectCount() - 1.
+     * @return The effect.
+     */
+    public static EffectType getBrickEffect(int index) {
+        return BRICK_EFFECTS[index];
+    }
+
+    /**
+     * Returns the strategy code of a brick starting this effect.
+     * @return The code.
+     * @throws IllegalStateException If no brick starts this effect.
+     */
+    public byte getBrickCode() {
+        for (int i = 0; i < BRICK_EFFECTS.length; i++) {
+            if (BRICK_EFFECTS[i] == this) {
+                return (byte) (StrategyType.EFFECT.getMask() | i);
+            }
+        }
+        throw new IllegalStateException(this + " is not started by bricks");
+    }
+
+    /**
+     * Decodes the effect started by a brick.
+     * @param code The strategy code of the brick.
+     * @return The effect, or null if the code is not a valid effect brick code.
+     */
+    public static EffectType ofBrickCode(byte code) {
+        if (!StrategyType.EFFECT.isIn(code)) {
+            return null;
+        }
+        int index = Byte.toUnsignedInt(code) & ~StrategyType.EFFECT.getMask();
+        return index < BRICK_EFFECTS.length ? BRICK_EFFECTS[index] : null;
+    }
+}
@@ -0,0 +1,14 @@
+package bricker.main;
+
+/**
+ * GameEndListener is notified by the BrickerGameManager when a game is won or lost.
+ * @author Batia
+ */
+@FunctionalInterface
+public interface GameEndListener {
+    /**
+     * Called once when the game ends.
+     * @param won true if all bricks were destroyed, false if the last life was lost.
+     */
+    void onGameEnd(boolean won);
+}
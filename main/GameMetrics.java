@@ -0,0 +1,171 @@
+package bricker.main;
+
+import bricker.brick_strategies.StrategyType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * GameMetrics is the metrics surface of a single game: a histogram of frame durations, counters
+ * incremented by the game loop and the collision strategies, and gauges published by the game
+ * loop at the end of every step. The game thread only performs uncontended atomic increments and
+ * volatile writes, never handing its own state to other threads; snapshots are written as JSON to
+ * a local file by a background daemon thread, so exporting never blocks the game.
+ * @author Batia
+ */
+public class GameMetrics {
+    private static final StrategyType[] STRATEGY_TYPES = StrategyType.values();
+    private static final double P50 = 50;
+    private static final double P99 = 99;
+    private static final String TEMP_SUFFIX = ".tmp";
+    private final FrameHistogram frameNanos = new FrameHistogram();
+    private final AtomicLong bricksRemoved = new AtomicLong();
+    private final AtomicLong objectsAdded = new AtomicLong();
+    private final AtomicLong brickHits = new AtomicLong();
+    private final AtomicLong lastFrameBrickHits = new AtomicLong();
+    private final AtomicLongArray strategiesFired = new AtomicLongArray(STRATEGY_TYPES.length);
+    private volatile int bricksLeft;
+    private volatile int livesLeft;
+    private volatile int liveSpawns;
+    private ScheduledExecutorService exporter;
+
+    /**
+     * Records the end of a frame.
+     * @param nanos          The duration of the frame's update.
+     * @param frameBrickHits The number of bricks hit by the ball and pucks during the frame.
+     */
+    public void frameEnded(long nanos, int frameBrickHits) {
+        frameNanos.record(nanos);
+        brickHits.addAndGet(frameBrickHits);
+        lastFrameBrickHits.set(frameBrickHits);
+    }
+
+    /**
+     * Publishes the gauges, read by the exporter instead of the game's own state.
+     * @param bricksLeft The number of bricks left.
+     * @param livesLeft  The number of lives left.
+     * @param liveSpawns The number of pucks, falling hearts and extra paddles in the game.
+     */
+    public void gaugesUpdated(int bricksLeft, int livesLeft, int liveSpawns) {
+        this.bricksLeft = bricksLeft;
+        this.livesLeft = livesLeft;
+        this.liveSpawns = liveSpawns;
+    }
+
+    /**
+     * Counts bricks removed from the game.
+     * @param count The number of bricks removed.
+     */
+    public void bricksRemoved(int count) {
+        bricksRemoved.addAndGet(count);
+    }
+
+    /**
+     * Counts objects added to the game.
+     * @param count The number of objects added.
+     */
+    public void objectsAdded(int count) {
+        objectsAdded.addAndGet(count);
+    }
+
+    /**
+     * Counts a collision strategy that fired.
+     * @param type The kind of strategy.
+     */
+    public void strategyFired(StrategyType type) {
+        strategiesFired.incrementAndGet(type.ordinal());
+    }
+
+    /**
+     * Returns the histogram of frame durations.
+     * @return The frame histogram.
+     */
+    public FrameHistogram getFrameNanos() {
+        return frameNanos;
+    }
+
+    /**
+     * Starts writing a snapshot to a file periodically, on a background daemon thread.
+     * Does nothing if an export is already running.
+     * @param path         The file to write; it is replaced on every snapshot.
+     * @param periodMillis The time between two snapshots.
+     */
+    public synchronized void startExport(Path path, long periodMillis) {
+        if (exporter != null) {
+            return;
+        }
+        exporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bricker-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        exporter.scheduleAtFixedRate(() -> export(path), periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic export, after writing one last snapshot.
+     * @param path The file to write the last snapshot to.
+     */
+    public synchronized void stopExport(Path path) {
+        if (exporter == null) {
+            return;
+        }
+        exporter.shutdown();
+        exporter = null;
+        export(path);
+    }
+
+    /**
+     * Writes a snapshot to a file, replacing it atomically so readers never see half a snapshot.
+     * @param path The file to write.
+     */
+    private void export(Path path) {
+        Path temp = path.resolveSibling(path.getFileName() + TEMP_SUFFIX);
+        try {
+            Files.write(temp, snapshot().getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Failed to write metrics to " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns a JSON snapshot of all metrics.
+     * @return The snapshot.
+     */
+    public String snapshot() {
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"timestampMillis\": ").append(System.currentTimeMillis()).append(",\n");
+        json.append("  \"frames\": ").append(frameNanos.getCount()).append(",\n");
+        json.append("  \"frameNanos\": {\"p50\": ").append(frameNanos.getPercentile(P50))
+                .append(", \"p99\": ").append(frameNanos.getPercentile(P99))
+                .append(", \"max\": ").append(frameNanos.getMax())
+                .append(", \"mean\": ").append(Math.round(frameNanos.getMean())).append("},\n");
+        json.append("  \"counters\": {\"bricksRemoved\": ").append(bricksRemoved.get())
+                .append(", \"objectsAdded\": ").append(objectsAdded.get())
+                .append(", \"brickHits\": ").append(brickHits.get())
+                .append(", \"lastFrameBrickHits\": ").append(lastFrameBrickHits.get()).append("},\n");
+        json.append("  \"strategiesFired\": {");
+        for (StrategyType type : STRATEGY_TYPES) {
+            if (type.ordinal() > 0) {
+                json.append(", ");
+            }
+            json.append('"').append(type.name().toLowerCase()).append("\": ")
+                    .append(strategiesFired.get(type.ordinal()));
+        }
+        json.append("},\n");
+        json.append("  \"gauges\": {\"bricksLeft\": ").append(bricksLeft)
+                .append(", \"livesLeft\": ").append(livesLeft)
+                .append(", \"liveSpawns\": ").append(liveSpawns).append("}\n");
+        json.append("}\n");
+        return json.toString();
+    }
+}
@@ -0,0 +1,101 @@
+package bricker.main;
+
+import danogl.GameObject;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A pool of reusable game objects of a single kind (pucks, falling hearts, extra paddles).
+ * Objects are pre-allocated, handed out with acquire and returned with release, so spawning
+ * them during play does not allocate and reclaimed objects never linger in the game.
+ * @param <T> The kind of game object held by the pool.
+ * @author Batia
+ */
+public class GameObjectPool<T extends GameObject> {
+    private final Supplier<T> factory;
+    private final ArrayDeque<T> pooled = new ArrayDeque<>();
+    private final List<T> live = new ArrayList<>();
+
+    /**
+     * Constructs a new pool and pre-allocates its objects.
+     * @param factory      Creates a new object when the pool runs dry.
+     * @param preallocated Number of objects to create up front.
+     */
+    public GameObjectPool(Supplier<T> factory, int preallocated) {
+        this.factory = factory;
+        for (int i = 0; i < preallocated; i++) {
+            pooled.push(factory.get());
+        }
+    }
+
+    /**
+     * Takes an object out of the pool, creating a new one only if none is pooled.
+     * The caller is responsible for positioning the object and adding it to the game.
+     * @return A live object.
+     */
+    public T acquire() {
+        T object = pooled.isEmpty() ? factory.get() : pooled.pop();
+        live.add(object);
+        return object;
+    }
+
+    /**
+     * Returns a live object to the pool.
+     * @param object The object to return.
+     * @return true if the object was live in this pool, false if it was already released
+     *         or never belonged to the pool.
+     */
+    public boolean release(T object) {
+        if (!live.remove(object)) {
+            return false;
+        }
+        pooled.push(object);
+        return true;
+    }
+
+    /**
+     * Returns to the pool every live object matching the given condition.
+     * @param condition Decides which live objects are reclaimed.
+     * @param onReclaim Called for each reclaimed object, e.g. to remove it from the game.
+     */
+    public void reclaimIf(Predicate<? super T> condition, Consumer<? super T> onReclaim) {
+        for (int i = live.size() - 1; i >= 0; i--) {
+            T object = live.get(i);
+            if (condition.test(object)) {
+                live.remove(i);
+                pooled.push(object);
+                onReclaim.accept(object);
+            }
+        }
+    }
+
+    /**
+     * Returns a live object by its index, for iterating the live objects without allocating.
+     * @param index The index of the object, between 0 and the live count.
+     * @return The live object.
+     */
+    public T getLive(int index) {
+        return live.get(index);
+    }
+
+    /**
+     * Returns the number of objects currently handed out.
+     * @return The live count.
+     */
+    public int getLiveCount() {
+        return live.size();
+    }
+
+    /**
+     * Returns the number of objects waiting in the pool.
+     * @return The pooled count.
+     */
+    public int getPooledCount() {
+        return pooled.size();
+    }
+}
@@ -0,0 +1,93 @@
+package bricker.main;
+
+/**
+ * GameRandom is the game's deterministic, seedable source of randomness (a SplitMix64
+ * generator). A single root generator is seeded per game, and every subsystem (board layout,
+ * ball launch, puck angles) draws its own independent sub-stream from it with split, so the
+ * same seed and the same input always produce the same game. Its whole state is a single
+ * long, which can be read and restored.
+ * @author Batia
+ */
+public class GameRandom {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+    private static final int DOUBLE_SHIFT = 11;
+    private long state;
+
+    /**
+     * Constructs a new generator.
+     * @param seed The seed of the generator.
+     */
+    public GameRandom(long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * Creates an independent sub-stream, advancing this generator by one step.
+     * @return A new generator seeded from this one.
+     */
+    public GameRandom split() {
+        return new GameRandom(mix(nextLong()));
+    }
+
+    /**
+     * Returns the next pseudo-random long.
+     * @return A uniformly distributed long.
+     */
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix(state);
+    }
+
+    /**
+     * Returns the next pseudo-random int between 0 (inclusive) and bound (exclusive).
+     * @param bound The upper bound, must be positive.
+     * @return A uniformly distributed int in [0, bound).
+     */
+    public int nextInt(int bound) {
+        return (int) ((nextLong() >>> 1) % bound);
+    }
+
+    /**
+     * Returns the next pseudo-random boolean.
+     * @return true or false with equal probability.
+     */
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    /**
+     * Returns the next pseudo-random double between 0 (inclusive) and 1 (exclusive).
+     * @return A uniformly distributed double in [0, 1).
+     */
+    public double nextDouble() {
+        return (nextLong() >>> DOUBLE_SHIFT) * DOUBLE_UNIT;
+    }
+
+    /**
+     * Returns the internal state of the generator.
+     * @return The state, which can be given back to setState.
+     */
+    public long getState() {
+        return state;
+    }
+
+    /**
+     * Restores the internal state of the generator.
+     * @param state A state previously returned by getState.
+     */
+    public void setState(long state) {
+        this.state = state;
+    }
+
+    /**
+     * The SplitMix64 output function.
+     * @param z The value to mix.
+     * @return The mixed value.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,97 @@
+package bricker.main;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * GameSnapshot saves the whole state of a running game to a file and restores it, so a game can
+ * be resumed mid-play. The file is a small header (magic, version, the board dimensions, whether
+ * the game is endless and the checksum of its level, if any), which must match the game it is
+ * restored into, followed by the state written by BrickerGameManager.writeSnapshot: random generator states,
+ * lives and counters, the live-brick bitset and per-brick strategy codes, the paddles, ball,
+ * pucks and falling hearts, and the timed effects on them. Files are read and written through
+ * memory-mapped buffers, the bricks with bulk copies, so even a board of a hundred thousand
+ * bricks takes milliseconds.
+ * @author Batia
+ */
+public class GameSnapshot {
+    private static final int MAGIC = 0x42524B53;
+    private static final byte VERSION = 5;
+    private static final int HEADER_BYTES = Integer.BYTES + 1 + 2 * Integer.BYTES + 2 + Long.BYTES;
+
+    /**
+     * GameSnapshot only has static methods.
+     */
+    private GameSnapshot() {
+    }
+
+    /**
+     * Saves the state of a game between two simulation steps.
+     * @param manager The game manager of the game.
+     * @param path    The path of the snapshot file, replaced if it exists.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(BrickerGameManager manager, Path path) throws IOException {
+        int size = HEADER_BYTES + manager.getSnapshotSize();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).put(VERSION);
+            buffer.putInt(manager.getBrickLines()).putInt(manager.getBricksPerLine());
+            LevelFile level = manager.getLevel();
+            buffer.put((byte) (manager.isEndless() ? 1 : 0)).put((byte) (level != null ? 1 : 0))
+                    .putLong(level != null ? level.getChecksum() : 0);
+            manager.writeSnapshot(buffer);
+        }
+    }
+
+    /**
+     * Restores a saved state into a game of the same board dimensions, mode and level, between two
+     * simulation steps.
+     * @param manager The initialized game manager of the game.
+     * @param path    The path of the snapshot file.
+     * @throws IOException If the file cannot be read, is not a snapshot or is of another game.
+     */
+    public static void read(BrickerGameManager manager, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a game snapshot: " + path);
+            }
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IOException("Unsupported game snapshot version " + version + ": " + path);
+            }
+            int brickLines = buffer.getInt();
+            int bricksPerLine = buffer.getInt();
+            if (brickLines != manager.getBrickLines() || bricksPerLine != manager.getBricksPerLine()) {
+                throw new IOException("Snapshot of a " + brickLines + "x" + bricksPerLine
+                        + " board cannot be restored into a " + manager.getBrickLines() + "x"
+                        + manager.getBricksPerLine() + " board: " + path);
+            }
+            boolean endless = buffer.get() != 0;
+            if (endless != manager.isEndless()) {
+                throw new IOException("Snapshot of " + (endless ? "an endless" : "a regular")
+                        + " game cannot be restored into " + (endless ? "a regular" : "an endless")
+                        + " game: " + path);
+            }
+            boolean hasLevel = buffer.get() != 0;
+            long levelChecksum = buffer.getLong();
+            LevelFile level = manager.getLevel();
+            if (hasLevel != (level != null) || (level != null && level.getChecksum() != levelChecksum)) {
+                throw new IOException("Snapshot of another level cannot be restored into this game: " + path);
+            }
+            try {
+                manager.readSnapshot(buffer);
+            } catch (IOException e) {
+                throw new IOException(e.getMessage() + ": " + path, e);
+            }
+        }
+    }
+}
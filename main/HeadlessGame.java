@@ -0,0 +1,141 @@
+package bricker.main;
+
+import bricker.gameobjects.KeyInput;
+
+/**
+ * HeadlessGame runs a single Bricker game without a window, stepping the game manager's fixed
+ * simulation step as fast as the CPU allows. It is used for regression and balance runs.
+ * @author Batia
+ */
+public class HeadlessGame implements GameEndListener {
+    private static final int DEFAULT_MAX_FRAMES = 120 * 60 * 10;
+    private static final int DEFAULT_GAMES = 1000;
+    private static final int GAMES_ARG = 0;
+    private static final int BRICK_LINES_ARG = 1;
+    private static final int BRICKS_PER_LINE_ARG = 2;
+    private static final int DEFAULT_BRICK_LINES = 7;
+    private static final int DEFAULT_BRICKS_PER_LINE = 8;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private final BrickerGameManager manager;
+    private boolean finished = false;
+    private boolean won = false;
+    private int frames = 0;
+
+    /**
+     * Constructs a new headless game.
+     * @param brickLines    The number of rows of bricks in the game.
+     * @param bricksPerLine The number of bricks in each row.
+     * @param seed          The seed of the game's randomness.
+     * @param paddleInput   The input driving the paddle.
+     */
+    public HeadlessGame(int brickLines, int bricksPerLine, long seed, KeyInput paddleInput) {
+        this.manager = BrickerGameManager.createHeadless(brickLines, bricksPerLine, seed, paddleInput, this);
+    }
+
+    /**
+     * Constructs a new headless game played on a level.
+     * @param level       The level of the game.
+     * @param seed        The seed of the game's randomness.
+     * @param paddleInput The input driving the paddle.
+     */
+    public HeadlessGame(LevelFile level, long seed, KeyInput paddleInput) {
+        this.manager = BrickerGameManager.createHeadless(level, seed, paddleInput, this);
+    }
+
+    /**
+     * Steps the game until it ends or the frame limit is reached.
+     * @param maxFrames The maximal number of frames to simulate.
+     * @return true if the game was won within the frame limit, false otherwise.
+     */
+    public boolean play(int maxFrames) {
+        while (!finished && frames < maxFrames) {
+            step();
+        }
+        return won;
+    }
+
+    /**
+     * Starts the next game with the same manager and input, as a windowed game does when the
+     * player chooses to play again. The frame counter keeps counting across games.
+     */
+    public void restart() {
+        finished = false;
+        won = false;
+        manager.restartHeadless();
+    }
+
+    /**
+     * Simulates a single fixed step of the game.
+     */
+    public void step() {
+        manager.stepSimulation();
+        frames++;
+    }
+
+    /**
+     * Records the result of the game.
+     * @param won true if all bricks were destroyed, false if the last life was lost.
+     */
+    @Override
+    public void onGameEnd(boolean won) {
+        this.finished = true;
+        this.won = won;
+    }
+
+    /**
+     * Returns whether the game was won or lost.
+     * @return true if the game ended.
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Returns whether the game was won.
+     * @return true if all bricks were destroyed.
+     */
+    public boolean isWon() {
+        return won;
+    }
+
+    /**
+     * Returns the number of frames simulated so far.
+     * @return The frame counter.
+     */
+    public int getFrames() {
+        return frames;
+    }
+
+    /**
+     * Returns the game manager driven by this headless game.
+     * @return The game manager.
+     */
+    public BrickerGameManager getManager() {
+        return manager;
+    }
+
+    /**
+     * Runs many headless games in a row and prints the throughput.
+     * @param args Number of games, number of brick lines and number of bricks per line.
+     */
+    public static void main(String[] args) {
+        int games = args.length > GAMES_ARG ? Integer.parseInt(args[GAMES_ARG]) : DEFAULT_GAMES;
+        int brickLines = args.length > BRICK_LINES_ARG ?
+                Integer.parseInt(args[BRICK_LINES_ARG]) : DEFAULT_BRICK_LINES;
+        int bricksPerLine = args.length > BRICKS_PER_LINE_ARG ?
+                Integer.parseInt(args[BRICKS_PER_LINE_ARG]) : DEFAULT_BRICKS_PER_LINE;
+        int wins = 0;
+        long totalFrames = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < games; i++) {
+            HeadlessGame game = new HeadlessGame(brickLines, bricksPerLine, i, KeyInput.IDLE);
+            if (game.play(DEFAULT_MAX_FRAMES)) {
+                wins++;
+            }
+            totalFrames += game.getFrames();
+        }
+        double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+        System.out.printf("%d games (%d won), %d frames in %.2fs: %.1f games/s, %.0f frames/s%n",
+                games, wins, totalFrames, seconds, games / seconds, totalFrames / seconds);
+    }
+}
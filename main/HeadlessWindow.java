@@ -0,0 +1,101 @@
+package bricker.main;
+
+import danogl.gui.UserInputListener;
+import danogl.gui.WindowController;
+import danogl.util.Vector2;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * HeadlessWindow stands in for the engine's window in headless games. GameManager.initializeGame
+ * sets up the engine's game object collection, so headless games call it too. The window
+ * controller and input listener they pass are dynamic proxies of the engine's interfaces: the
+ * controller reports the game's dimensions, every other call does nothing and returns false,
+ * zero or null, and no key is ever pressed. Being proxies, they implement whatever methods the
+ * engine's version of the interfaces declares.
+ * @author Batia
+ */
+public class HeadlessWindow {
+    private static final String GET_WINDOW_DIMENSIONS = "getWindowDimensions";
+
+    /**
+     * HeadlessWindow only has static methods.
+     */
+    private HeadlessWindow() {
+    }
+
+    /**
+     * Creates a window controller for a headless game.
+     * @param dimensions The dimensions of the game's window.
+     * @return A window controller without a window.
+     */
+    public static WindowController createWindowController(Vector2 dimensions) {
+        return createProxy(WindowController.class, dimensions);
+    }
+
+    /**
+     * Creates an input listener for a headless game, which never reports a pressed key.
+     * @return An idle input listener.
+     */
+    public static UserInputListener createInputListener() {
+        return createProxy(UserInputListener.class, null);
+    }
+
+    /**
+     * Creates a proxy of an engine interface whose methods do nothing.
+     * @param type       The interface.
+     * @param dimensions The dimensions reported by getWindowDimensions, if the interface has it.
+     * @param <T>        The interface.
+     * @return The proxy.
+     */
+    private static <T> T createProxy(Class<T> type, Vector2 dimensions) {
+        InvocationHandler handler = (proxy, method, args) -> invoke(proxy, method, args, dimensions);
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    /**
+     * Answers a call on a proxy.
+     * @param proxy      The proxy.
+     * @param method     The method called.
+     * @param args       The arguments of the call.
+     * @param dimensions The dimensions reported by getWindowDimensions.
+     * @return The result of the call.
+     */
+    private static Object invoke(Object proxy, Method method, Object[] args, Vector2 dimensions) {
+        return switch (method.getName()) {
+            case GET_WINDOW_DIMENSIONS -> dimensions;
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "toString" -> HeadlessWindow.class.getSimpleName();
+            default -> defaultValue(method.getReturnType());
+        };
+    }
+
+    /**
+     * Returns the default value of a type: false, zero or null.
+     * @param type The return type of a method.
+     * @return The default value, boxed.
+     */
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        } else if (type == boolean.class) {
+            return false;
+        } else if (type == char.class) {
+            return (char) 0;
+        } else if (type == float.class) {
+            return 0f;
+        } else if (type == double.class) {
+            return 0d;
+        } else if (type == long.class) {
+            return 0L;
+        }
+        return switch (type.getName()) {
+            case "byte" -> (byte) 0;
+            case "short" -> (short) 0;
+            default -> 0;
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package bricker.main;
+
+import bricker.gameobjects.KeyInput;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * InputRecorder sits between the real paddle input and the paddles: it samples the left and
+ * right keys once per frame, hands the sampled keys to the paddles and appends them to an
+ * InputRecording, so the session can later be replayed exactly.
+ * @author Batia
+ */
+public class InputRecorder implements KeyInput {
+    private final InputRecording recording;
+    private KeyInput source = KeyInput.IDLE;
+    private int frameKeys = 0;
+    private boolean started = false;
+
+    /**
+     * Constructs a new recorder.
+     * @param recording The recording to append the sampled frames to.
+     */
+    public InputRecorder(InputRecording recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Sets the input being recorded.
+     * @param source The real paddle input.
+     */
+    public void setSource(KeyInput source) {
+        this.source = source;
+    }
+
+    /**
+     * Starts recording a game of the session. Every game after the first is marked in the
+     * recording, so a replay can start it when the recorded player did.
+     */
+    public void startGame() {
+        if (started) {
+            recording.addGameReset();
+        }
+        started = true;
+    }
+
+    /**
+     * Samples the keys of the new frame and records them.
+     */
+    @Override
+    public void beginFrame() {
+        source.beginFrame();
+        frameKeys = 0;
+        if (source.isKeyPressed(KeyEvent.VK_LEFT)) {
+            frameKeys |= InputRecording.LEFT_BIT;
+        }
+        if (source.isKeyPressed(KeyEvent.VK_RIGHT)) {
+            frameKeys |= InputRecording.RIGHT_BIT;
+        }
+        recording.addFrame(frameKeys);
+    }
+
+    /**
+     * Returns whether the given key was pressed when the current frame was sampled.
+     * @param keyCode The key code, as defined in java.awt.event.KeyEvent.
+     * @return true if the key is pressed in the current frame.
+     */
+    @Override
+    public boolean isKeyPressed(int keyCode) {
+        return InputReplay.isKeyInBits(keyCode, frameKeys);
+    }
+
+    /**
+     * Returns the recording being written.
+     * @return The recording.
+     */
+    public InputRecording getRecording() {
+        return recording;
+    }
+}
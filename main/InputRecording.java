@@ -0,0 +1,333 @@
+package bricker.main;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * InputRecording holds the paddle input of a recorded session together with everything needed
+ * to reproduce it: the seed of the game, the board dimensions, the simulation rate, whether the
+ * game was endless and, for a game played on a level file, the level's path and checksum. A
+ * level is only replayed if its checksum still matches. The input is stored as runs of
+ * identical frames; each run is a single varint holding the run length and the 2 key bits
+ * (left, right), so a session of steady play takes a few bytes per second. A session can span
+ * several games: an empty run marks where the player chose to play again and the next game
+ * started.
+ * @author Batia
+ */
+public class InputRecording {
+    /** The bit of the left key in a frame's key bits. */
+    public static final int LEFT_BIT = 1;
+    /** The bit of the right key in a frame's key bits. */
+    public static final int RIGHT_BIT = 2;
+    private static final int MAGIC = 0x42524B49;
+    private static final byte VERSION = 3;
+    // random boards generate effect bricks since version 3, so older recordings of random boards
+    // no longer reproduce their game; version 1 recordings were all of random boards
+    private static final byte FIRST_RANDOM_BOARD_VERSION = 3;
+    private static final byte FIRST_LEVEL_VERSION = 2;
+    private static final int KEY_BITS = 2;
+    private static final int KEY_MASK = (1 << KEY_BITS) - 1;
+    private static final int VARINT_DATA_BITS = 7;
+    private static final int VARINT_DATA_MASK = 0x7F;
+    private static final int VARINT_CONTINUE = 0x80;
+    private static final int INITIAL_RUNS = 64;
+    private static final long GAME_RESET = 0;
+    private final long seed;
+    private final int brickLines;
+    private final int bricksPerLine;
+    private final int simulationRate;
+    private final boolean endless;
+    private final String levelPath;
+    private final long levelChecksum;
+    private long[] runs;
+    private int runCount;
+    private long frameCount;
+
+    /**
+     * Constructs a new empty recording.
+     * @param seed           The seed of the recorded game.
+     * @param brickLines     The number of rows of bricks in the recorded game.
+     * @param bricksPerLine  The number of bricks in each row.
+     * @param simulationRate The number of simulation steps per second of the recorded game.
+     * @param endless        true if the recorded game was played in endless mode.
+     * @param level          The level of the recorded game, or null for a random board.
+     */
+    public InputRecording(long seed, int brickLines, int bricksPerLine, int simulationRate, boolean endless,
+                          LevelFile level) {
+        this(seed, brickLines, bricksPerLine, simulationRate, endless,
+                level == null ? null : level.getPath().toString(), level == null ? 0 : level.getChecksum());
+    }
+
+    /**
+     * Constructs a new empty recording from the fields of its header.
+     * @param seed           The seed of the recorded game.
+     * @param brickLines     The number of rows of bricks in the recorded game.
+     * @param bricksPerLine  The number of bricks in each row.
+     * @param simulationRate The number of simulation steps per second of the recorded game.
+     * @param endless        true if the recorded game was played in endless mode.
+     * @param levelPath      The path of the level of the recorded game, or null for a random board.
+     * @param levelChecksum  The checksum of the level.
+     */
+    private InputRecording(long seed, int brickLines, int bricksPerLine, int simulationRate, boolean endless,
+                           String levelPath, long levelChecksum) {
+        this.seed = seed;
+        this.brickLines = brickLines;
+        this.bricksPerLine = bricksPerLine;
+        this.simulationRate = simulationRate;
+        this.endless = endless;
+        this.levelPath = levelPath;
+        this.levelChecksum = levelChecksum;
+        this.runs = new long[INITIAL_RUNS];
+    }
+
+    /**
+     * Appends a frame to the recording, extending the last run if the keys did not change.
+     * @param keyBits The keys pressed during the frame, a combination of LEFT_BIT and RIGHT_BIT.
+     */
+    public void addFrame(int keyBits) {
+        frameCount++;
+        if (runCount > 0 && runs[runCount - 1] != GAME_RESET && (runs[runCount - 1] & KEY_MASK) == keyBits) {
+            runs[runCount - 1] += 1 << KEY_BITS;
+            return;
+        }
+        addRun((1L << KEY_BITS) | keyBits);
+    }
+
+    /**
+     * Marks the start of the next game of the session, the frames that follow belonging to it.
+     */
+    public void addGameReset() {
+        addRun(GAME_RESET);
+    }
+
+    /**
+     * Appends a run, growing the runs if needed.
+     * @param run The run length and key bits of the run.
+     */
+    private void addRun(long run) {
+        if (runCount == runs.length) {
+            runs = Arrays.copyOf(runs, runs.length * 2);
+        }
+        runs[runCount++] = run;
+    }
+
+    /**
+     * Returns the number of runs of identical frames.
+     * @return The run count.
+     */
+    public int getRunCount() {
+        return runCount;
+    }
+
+    /**
+     * Returns the length, in frames, of a run.
+     * @param run The index of the run.
+     * @return The number of frames of the run.
+     */
+    public long getRunLength(int run) {
+        return runs[run] >>> KEY_BITS;
+    }
+
+    /**
+     * Returns whether a run marks the start of the next game of the session rather than holding
+     * frames.
+     * @param run The index of the run.
+     * @return true if the next game starts after the run.
+     */
+    public boolean isGameReset(int run) {
+        return runs[run] == GAME_RESET;
+    }
+
+    /**
+     * Returns the keys pressed during a run.
+     * @param run The index of the run.
+     * @return A combination of LEFT_BIT and RIGHT_BIT.
+     */
+    public int getRunKeys(int run) {
+        return (int) (runs[run] & KEY_MASK);
+    }
+
+    /**
+     * Returns the total number of recorded frames.
+     * @return The frame count.
+     */
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Returns the seed of the recorded game.
+     * @return The seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the number of rows of bricks in the recorded game.
+     * @return The number of brick lines.
+     */
+    public int getBrickLines() {
+        return brickLines;
+    }
+
+    /**
+     * Returns the number of bricks in each row of the recorded game.
+     * @return The number of bricks per line.
+     */
+    public int getBricksPerLine() {
+        return bricksPerLine;
+    }
+
+    /**
+     * Returns the number of simulation steps per second of the recorded game.
+     * @return The simulation rate.
+     */
+    public int getSimulationRate() {
+        return simulationRate;
+    }
+
+    /**
+     * Returns whether the recorded game was played in endless mode.
+     * @return true if the game was endless.
+     */
+    public boolean isEndless() {
+        return endless;
+    }
+
+    /**
+     * Opens the level the recorded game was played on.
+     * @return The level, or null if the game was played on a random board.
+     * @throws IOException If the level cannot be read or changed since the game was recorded.
+     */
+    public LevelFile openLevel() throws IOException {
+        if (levelPath == null) {
+            return null;
+        }
+        LevelFile level = LevelFile.open(Paths.get(levelPath));
+        if (level.getChecksum() != levelChecksum) {
+            throw new IOException("Level file changed since the game was recorded: " + levelPath);
+        }
+        return level;
+    }
+
+    /**
+     * Writes the recording to a file.
+     * @param path The path of the file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(Path path) throws IOException {
+        try (DataOutputStream out =
+                     new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(seed);
+            out.writeInt(brickLines);
+            out.writeInt(bricksPerLine);
+            out.writeInt(simulationRate);
+            out.writeBoolean(endless);
+            out.writeBoolean(levelPath != null);
+            if (levelPath != null) {
+                out.writeUTF(levelPath);
+                out.writeLong(levelChecksum);
+            }
+            out.writeInt(runCount);
+            for (int i = 0; i < runCount; i++) {
+                writeVarLong(out, runs[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads a recording from a file.
+     * @param path The path of the file.
+     * @return The recording.
+     * @throws IOException If the file cannot be read, is not a recording or is a recording of a
+     *                     random board made by a version generating other boards.
+     */
+    public static InputRecording read(Path path) throws IOException {
+        try (DataInputStream in =
+                     new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not an input recording: " + path);
+            }
+            byte version = in.readByte();
+            if (version < FIRST_LEVEL_VERSION || version > VERSION) {
+                throw new IOException("Unsupported input recording version " + version + ": " + path);
+            }
+            long seed = in.readLong();
+            int brickLines = in.readInt();
+            int bricksPerLine = in.readInt();
+            int simulationRate = in.readInt();
+            if (simulationRate <= 0) {
+                throw new IOException("Corrupt input recording, simulation rate " + simulationRate + ": " + path);
+            }
+            boolean endless = in.readBoolean();
+            String levelPath = null;
+            long levelChecksum = 0;
+            if (in.readBoolean()) {
+                levelPath = in.readUTF();
+                levelChecksum = in.readLong();
+            }
+            if (levelPath == null && version < FIRST_RANDOM_BOARD_VERSION) {
+                throw new IOException("Recording of a random board generated by an older version: " + path);
+            }
+            InputRecording recording = new InputRecording(seed, brickLines, bricksPerLine, simulationRate,
+                    endless, levelPath, levelChecksum);
+            int runCount = in.readInt();
+            if (runCount < 0) {
+                throw new IOException("Corrupt input recording, " + runCount + " runs: " + path);
+            }
+            recording.runs = new long[Math.max(runCount, 1)];
+            for (int i = 0; i < runCount; i++) {
+                long run = readVarLong(in);
+                recording.runs[i] = run;
+                recording.frameCount += run >>> KEY_BITS;
+            }
+            recording.runCount = runCount;
+            return recording;
+        }
+    }
+
+    /**
+     * Writes an unsigned variable-length long, 7 bits per byte.
+     * @param out   The stream to write to.
+     * @param value The value to write.
+     * @throws IOException If the stream fails.
+     */
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~VARINT_DATA_MASK) != 0) {
+            out.writeByte((int) (value & VARINT_DATA_MASK) | VARINT_CONTINUE);
+            value >>>= VARINT_DATA_BITS;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Reads an unsigned variable-length long written by writeVarLong.
+     * @param in The stream to read from.
+     * @return The value read.
+     * @throws IOException If the stream fails or the value does not fit in a long.
+     */
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            if (shift >= Long.SIZE) {
+                throw new IOException("Corrupt input recording, variable-length value too long");
+            }
+            b = in.readUnsignedByte();
+            value |= (long) (b & VARINT_DATA_MASK) << shift;
+            shift += VARINT_DATA_BITS;
+        } while ((b & VARINT_CONTINUE) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,148 @@
+package bricker.main;
+
+import bricker.gameobjects.KeyInput;
+
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * InputReplay feeds a recorded session back to the paddles, one recorded frame per game frame.
+ * In a windowed game it replays at real-time speed; in a headless game it replays as fast as
+ * the game can be stepped. A recording spans every game of the session: at the end of a recorded
+ * game no key is pressed until the next game starts, and once the recording is exhausted no key
+ * is pressed at all.
+ * @author Batia
+ */
+public class InputReplay implements KeyInput {
+    private static final int MAX_EXTRA_FRAMES = 120 * 60;
+    private static final double NANOS_PER_MILLI = 1e6;
+    private final InputRecording recording;
+    private int run = -1;
+    private long framesLeftInRun = 0;
+    private int frameKeys = 0;
+    private boolean started = false;
+
+    /**
+     * Constructs a new replay.
+     * @param recording The recording to replay.
+     */
+    public InputReplay(InputRecording recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Moves the replay to the start of the next recorded game. The first call starts the first
+     * game; every later call skips what is left of the current one.
+     * @return false if the recording holds no further game.
+     */
+    public boolean startGame() {
+        if (!started) {
+            started = true;
+            return true;
+        }
+        for (int next = run + 1; next < recording.getRunCount(); next++) {
+            if (recording.isGameReset(next)) {
+                run = next;
+                framesLeftInRun = 0;
+                frameKeys = 0;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Advances the replay to the next recorded frame, unless the current recorded game is over.
+     */
+    @Override
+    public void beginFrame() {
+        while (framesLeftInRun == 0) {
+            if (run + 1 >= recording.getRunCount() || recording.isGameReset(run + 1)) {
+                frameKeys = 0;
+                return;
+            }
+            run++;
+            framesLeftInRun = recording.getRunLength(run);
+            frameKeys = recording.getRunKeys(run);
+        }
+        framesLeftInRun--;
+    }
+
+    /**
+     * Returns whether the given key was pressed in the recorded frame being replayed.
+     * @param keyCode The key code, as defined in java.awt.event.KeyEvent.
+     * @return true if the key was pressed.
+     */
+    @Override
+    public boolean isKeyPressed(int keyCode) {
+        return isKeyInBits(keyCode, frameKeys);
+    }
+
+    /**
+     * Returns whether every recorded frame of the current game was replayed and the recorded
+     * player then started another game.
+     * @return true if the next recorded game is waiting to be started.
+     */
+    public boolean isAtGameReset() {
+        return framesLeftInRun == 0 && run + 1 < recording.getRunCount() && recording.isGameReset(run + 1);
+    }
+
+    /**
+     * Returns whether every recorded frame was replayed.
+     * @return true if the replay is exhausted.
+     */
+    public boolean isFinished() {
+        return framesLeftInRun == 0 && run + 1 >= recording.getRunCount();
+    }
+
+    /**
+     * Decodes a key from the key bits of a recorded frame.
+     * @param keyCode The key code, as defined in java.awt.event.KeyEvent.
+     * @param keyBits The key bits of the frame.
+     * @return true if the key is set in the bits.
+     */
+    static boolean isKeyInBits(int keyCode, int keyBits) {
+        if (keyCode == KeyEvent.VK_LEFT) {
+            return (keyBits & InputRecording.LEFT_BIT) != 0;
+        }
+        if (keyCode == KeyEvent.VK_RIGHT) {
+            return (keyBits & InputRecording.RIGHT_BIT) != 0;
+        }
+        return false;
+    }
+
+    /**
+     * Replays every game of a recording in a headless game as fast as possible and prints the
+     * outcome of each.
+     * @param args The path of the recording.
+     * @throws IOException If the recording or its level cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        InputRecording recording = InputRecording.read(Paths.get(args[0]));
+        InputReplay replay = new InputReplay(recording);
+        LevelFile level = recording.openLevel();
+        long maxFrames = recording.getFrameCount() + MAX_EXTRA_FRAMES;
+        long start = System.nanoTime();
+        replay.startGame();
+        HeadlessGame game = level != null ? new HeadlessGame(level, recording.getSeed(), replay)
+                : new HeadlessGame(recording.getBrickLines(), recording.getBricksPerLine(), recording.getSeed(), replay);
+        game.getManager().setSimulationRate(recording.getSimulationRate());
+        game.getManager().setEndless(recording.isEndless());
+        int games = 0;
+        do {
+            if (games > 0) {
+                game.restart();
+            }
+            games++;
+            while (!game.isFinished() && !replay.isAtGameReset() && game.getFrames() < maxFrames) {
+                game.step();
+            }
+            System.out.printf("game %d: %s, %d bricks left, %d lives left%n", games,
+                    game.isFinished() ? (game.isWon() ? "won" : "lost") : "unfinished",
+                    game.getManager().getBricksLeft(), game.getManager().getLivesLeft());
+        } while (game.getFrames() < maxFrames && replay.startGame());
+        double millis = (System.nanoTime() - start) / NANOS_PER_MILLI;
+        System.out.printf("replayed %d frames of %d games in %.1fms%n", game.getFrames(), games, millis);
+    }
+}
@@ -0,0 +1,215 @@
+package bricker.main;
+
+import bricker.brick_strategies.StrategyType;
+import bricker.gameobjects.BrickField;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.zip.CRC32;
+
+/**
+ * LevelFile is a hand-authored board: the size of the brick grid, which cells hold a brick and
+ * the strategy code of every cell. The file is binary and little-endian: a header (magic,
+ * version, rows and columns) followed by one presence bit per cell, packed in longs, and one
+ * strategy code byte per cell, both in row-major order, i.e. the same layout as the state of a
+ * BrickField. A level is mapped with FileChannel.map and the bricks are built straight from the
+ * mapped buffer with two bulk copies, so a board of a million cells loads in milliseconds.
+ * <p>
+ * Strategy codes are StrategyType bitmasks, or EffectType brick codes for effect bricks. New
+ * strategies only ever add bits or effect indices, so a level stays valid for every later
+ * version of the game. A level using bits or effects this version does not know is rejected
+ * when it is opened rather than misread.
+ * <p>
+ * A level remembers the path it was opened from and a checksum of its contents, so recordings
+ * of games played on it can name it and tell when it changed.
+ * @author Batia
+ */
+public class LevelFile {
+    private static final int MAGIC = 0x42524B4C;
+    private static final byte VERSION = 1;
+    private static final int HEADER_BYTES = Integer.BYTES + 1 + 2 * Integer.BYTES;
+    private static final int KNOWN_CODE_BITS = knownCodeBits();
+    private final Path path;
+    private final long checksum;
+    private final int rows;
+    private final int columns;
+    private final ByteBuffer cells;
+
+    /**
+     * Constructs a level around its mapped cells.
+     * @param path     The path the level was opened from.
+     * @param checksum The CRC-32 of the whole level file.
+     * @param rows     The number of rows of the grid.
+     * @param columns  The number of columns of the grid.
+     * @param cells    The presence bits and strategy codes of the cells.
+     */
+    private LevelFile(Path path, long checksum, int rows, int columns, ByteBuffer cells) {
+        this.path = path;
+        this.checksum = checksum;
+        this.rows = rows;
+        this.columns = columns;
+        this.cells = cells;
+    }
+
+    /**
+     * Maps a level file and checks its header and strategy codes.
+     * @param path The path of the level file.
+     * @return The level.
+     * @throws IOException If the file cannot be read, is not a level or uses unknown strategies.
+     */
+    public static LevelFile open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a level file: " + path);
+        }
+        byte version = buffer.get();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported level file version " + version + ": " + path);
+        }
+        int rows = buffer.getInt();
+        int columns = buffer.getInt();
+        if (rows < 0 || columns < 0 || buffer.remaining() != cellsSize((long) rows * columns)) {
+            throw new IOException("Corrupt level file: " + path);
+        }
+        ByteBuffer cells = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        int codes = wordCount(rows * columns) * Long.BYTES;
+        int usedBits = rows * columns % Long.SIZE;
+        if (usedBits != 0 && cells.getLong(codes - Long.BYTES) >>> usedBits != 0) {
+            // bits past the last cell would count as bricks no row holds
+            throw new IOException("Corrupt level file: " + path);
+        }
+        for (int i = codes; i < cells.limit(); i++) {
+            if (!isKnownCode(cells.get(i))) {
+                throw new IOException("Level file uses strategies unknown to this version: " + path);
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(0));
+        return new LevelFile(path, crc.getValue(), rows, columns, cells);
+    }
+
+    /**
+     * Writes a level file.
+     * @param path    The path of the level file, replaced if it exists.
+     * @param rows    The number of rows of the grid.
+     * @param columns The number of columns of the grid.
+     * @param present The cells holding a brick, cell i being (i / columns, i % columns).
+     * @param codes   The strategy code of every cell.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(Path path, int rows, int columns, BitSet present, byte[] codes)
+            throws IOException {
+        int size = rows * columns;
+        if (codes.length != size) {
+            throw new IllegalArgumentException("Expected " + size + " strategy codes, got " + codes.length);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_BYTES + cellsSize(size));
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).put(VERSION).putInt(rows).putInt(columns);
+            long[] words = present.get(0, size).toLongArray();
+            buffer.asLongBuffer().put(words);
+            buffer.position(buffer.position() + wordCount(size) * Long.BYTES);
+            buffer.put(codes);
+        }
+    }
+
+    /**
+     * Fills a brick field of the level's size with the level's bricks and strategy codes.
+     * @param brickField A field with the level's rows and columns, its grid already filled.
+     */
+    public void applyTo(BrickField brickField) {
+        if (brickField.getRows() != rows || brickField.getColumns() != columns) {
+            throw new IllegalArgumentException("A " + rows + "x" + columns + " level cannot fill a "
+                    + brickField.getRows() + "x" + brickField.getColumns() + " brick field");
+        }
+        brickField.readState(cells.duplicate().order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    /**
+     * Returns the path the level was opened from.
+     * @return The path of the level file.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Returns a checksum of the level file, which changes whenever the level does.
+     * @return The CRC-32 of the whole file.
+     */
+    public long getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * Returns the number of rows of the level.
+     * @return The number of brick lines.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns of the level.
+     * @return The number of bricks per line.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the size of the cells section of a level.
+     * @param size The number of cells.
+     * @return The number of bytes of the presence bits and strategy codes.
+     */
+    private static long cellsSize(long size) {
+        return (size + Long.SIZE - 1) / Long.SIZE * Long.BYTES + size;
+    }
+
+    /**
+     * Returns the number of longs holding one presence bit per cell.
+     * @param size The number of cells.
+     * @return The number of words.
+     */
+    private static int wordCount(int size) {
+        return (size + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    /**
+     * Returns whether this version knows every strategy of a code.
+     * @param code The strategy code of a cell.
+     * @return true if the code only uses known strategy bits, or is a known effect brick code.
+     */
+    static boolean isKnownCode(byte code) {
+        if (StrategyType.EFFECT.isIn(code)) {
+            return EffectType.ofBrickCode(code) != null;
+        }
+        return (code & ~KNOWN_CODE_BITS) == 0;
+    }
+
+    /**
+     * Returns the union of the masks of every strategy this version knows.
+     * @return The bits a strategy code may use.
+     */
+    private static int knownCodeBits() {
+        int bits = 0;
+        for (StrategyType type : StrategyType.values()) {
+            bits |= type.getMask();
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,98 @@
+package bricker.main;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.util.Arrays;
+
+/**
+ * RenderInterpolator smooths rendering when the simulation runs at a fixed rate that differs
+ * from the frame rate. Before a simulation step it records where the moving objects start;
+ * after the steps of a frame it shows each object between its last two simulated positions,
+ * and at the start of the next frame it puts the simulated positions back before simulating.
+ * <p>
+ * The engine's vectors are immutable, so showing an object somewhere new takes a new Vector2.
+ * Objects that did not move during the step are left alone, and the vector shown for each
+ * tracked object is kept and shown again while the interpolated position stays the same, so
+ * only objects that actually move allocate, one vector per rendered frame.
+ * @author Batia
+ */
+public class RenderInterpolator {
+    private static final int INITIAL_CAPACITY = 16;
+    private GameObject[] objects = new GameObject[INITIAL_CAPACITY];
+    private float[] previousX = new float[INITIAL_CAPACITY];
+    private float[] previousY = new float[INITIAL_CAPACITY];
+    private Vector2[] simulated = new Vector2[INITIAL_CAPACITY];
+    // the interpolated position last shown in each slot, kept across steps since vectors are immutable
+    private Vector2[] shown = new Vector2[INITIAL_CAPACITY];
+    private int count = 0;
+    private boolean interpolated = false;
+
+    /**
+     * Forgets the objects tracked for the previous simulation step.
+     */
+    public void clear() {
+        Arrays.fill(objects, 0, count, null);
+        Arrays.fill(simulated, 0, count, null);
+        count = 0;
+    }
+
+    /**
+     * Tracks a moving object, recording its position at the start of a simulation step.
+     * @param object The moving object.
+     */
+    public void track(GameObject object) {
+        if (count == objects.length) {
+            int capacity = objects.length * 2;
+            objects = Arrays.copyOf(objects, capacity);
+            previousX = Arrays.copyOf(previousX, capacity);
+            previousY = Arrays.copyOf(previousY, capacity);
+            simulated = Arrays.copyOf(simulated, capacity);
+            shown = Arrays.copyOf(shown, capacity);
+        }
+        Vector2 position = object.getTopLeftCorner();
+        objects[count] = object;
+        previousX[count] = position.x();
+        previousY[count] = position.y();
+        count++;
+    }
+
+    /**
+     * Moves every tracked object to a position between where it started the last simulation step
+     * and where it ended it, keeping the simulated position to be restored. Objects that did not
+     * move are already where they should be shown.
+     * @param alpha The fraction of a simulation step elapsed since the last step, between 0 and 1.
+     */
+    public void interpolate(float alpha) {
+        for (int i = 0; i < count; i++) {
+            Vector2 position = objects[i].getTopLeftCorner();
+            if (position.x() == previousX[i] && position.y() == previousY[i]) {
+                simulated[i] = null;
+                continue;
+            }
+            simulated[i] = position;
+            float x = previousX[i] + (position.x() - previousX[i]) * alpha;
+            float y = previousY[i] + (position.y() - previousY[i]) * alpha;
+            if (shown[i] == null || shown[i].x() != x || shown[i].y() != y) {
+                shown[i] = new Vector2(x, y);
+            }
+            objects[i].setTopLeftCorner(shown[i]);
+        }
+        interpolated = true;
+    }
+
+    /**
+     * Puts back the simulated positions of the tracked objects after they were interpolated.
+     */
+    public void restore() {
+        if (!interpolated) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            if (simulated[i] != null) {
+                objects[i].setTopLeftCorner(simulated[i]);
+            }
+        }
+        interpolated = false;
+    }
+}
@@ -0,0 +1,60 @@
+package bricker.main;
+
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.KeyInput;
+import bricker.gameobjects.Paddle;
+import danogl.GameObject;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * A simple scripted paddle policy for headless games: the paddle moves towards the x
+ * coordinate of the main ball, and stays put while the ball is within a small dead zone.
+ * @author Batia
+ */
+public class ScriptedPaddlePolicy implements KeyInput {
+    private static final float DEAD_ZONE = 10;
+    private BrickerGameManager manager;
+
+    /**
+     * Attaches the policy to the game whose paddle it drives.
+     * @param manager The game manager of the game.
+     */
+    public void attach(BrickerGameManager manager) {
+        this.manager = manager;
+    }
+
+    /**
+     * Presses left or right according to the position of the ball relative to the paddle.
+     * @param keyCode The key code, as defined in java.awt.event.KeyEvent.
+     * @return true if the policy presses the given key.
+     */
+    @Override
+    public boolean isKeyPressed(int keyCode) {
+        if (manager == null) {
+            return false;
+        }
+        Paddle paddle = manager.getMainPaddle();
+        Ball ball = manager.getBall();
+        if (paddle == null || ball == null) {
+            return false;
+        }
+        float offset = centerX(ball) - centerX(paddle);
+        if (keyCode == KeyEvent.VK_LEFT) {
+            return offset < -DEAD_ZONE;
+        }
+        if (keyCode == KeyEvent.VK_RIGHT) {
+            return offset > DEAD_ZONE;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the x coordinate of the center of an object, without allocating a Vector2.
+     * @param object The object.
+     * @return The x coordinate of its center.
+     */
+    private static float centerX(GameObject object) {
+        return object.getTopLeftCorner().x() + object.getDimensions().x() / 2;
+    }
+}
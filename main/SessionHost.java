@@ -0,0 +1,178 @@
+package bricker.main;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SessionHost runs many independent headless game sessions concurrently in one JVM. Every session
+ * owns its whole game state and is played by a good autopilot, so sessions share nothing but the
+ * immutable assets and need no input. Sessions are multiplexed over a small pool of carrier
+ * threads, one per core: a session steps a short slice of frames and then yields its carrier by
+ * rescheduling itself, so thousands of sessions make progress together without a platform thread
+ * each. The host reports the retained heap of a
+ * session and the aggregate frame throughput across all cores.
+ * @author Batia
+ */
+public class SessionHost {
+    private static final int SESSIONS_ARG = 0;
+    private static final int BRICK_LINES_ARG = 1;
+    private static final int BRICKS_PER_LINE_ARG = 2;
+    private static final int MAX_FRAMES_ARG = 3;
+    private static final int DEFAULT_SESSIONS = 2000;
+    private static final int DEFAULT_BRICK_LINES = 7;
+    private static final int DEFAULT_BRICKS_PER_LINE = 8;
+    private static final int DEFAULT_MAX_FRAMES = 120 * 60 * 2;
+    private static final int FRAMES_PER_SLICE = 120;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private final int sessionCount;
+    private final int brickLines;
+    private final int bricksPerLine;
+    private final int maxFrames;
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder wins = new LongAdder();
+    private long bytesPerSession;
+    private double seconds;
+
+    /**
+     * Constructs a new session host.
+     * @param sessionCount  The number of sessions to run.
+     * @param brickLines    The number of rows of bricks in every session.
+     * @param bricksPerLine The number of bricks in each row.
+     * @param maxFrames     The maximal number of frames a session is stepped.
+     */
+    public SessionHost(int sessionCount, int brickLines, int bricksPerLine, int maxFrames) {
+        this.sessionCount = sessionCount;
+        this.brickLines = brickLines;
+        this.bricksPerLine = bricksPerLine;
+        this.maxFrames = maxFrames;
+    }
+
+    /**
+     * Creates every session, measuring their retained heap, then runs them all on the given
+     * carriers until each one ends or reaches the frame limit.
+     * @param carriers The threads the sessions are multiplexed over.
+     * @throws InterruptedException If interrupted while waiting for the sessions.
+     */
+    public void run(Executor carriers) throws InterruptedException {
+        long heapBefore = usedHeap();
+        Session[] sessions = new Session[sessionCount];
+        CountDownLatch finished = new CountDownLatch(sessionCount);
+        for (int i = 0; i < sessionCount; i++) {
+            sessions[i] = new Session(i, carriers, finished);
+        }
+        bytesPerSession = sessionCount == 0 ? 0 : (usedHeap() - heapBefore) / sessionCount;
+        long start = System.nanoTime();
+        for (Session session : sessions) {
+            carriers.execute(session);
+        }
+        finished.await();
+        seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+    }
+
+    /**
+     * Returns the heap retained by a single session once created, averaged over all sessions.
+     * @return The footprint of a session in bytes.
+     */
+    public long getBytesPerSession() {
+        return bytesPerSession;
+    }
+
+    /**
+     * Returns the number of frames all sessions simulated per second of wall-clock time.
+     * @return The aggregate throughput.
+     */
+    public double getFramesPerSecond() {
+        return seconds == 0 ? 0 : frames.sum() / seconds;
+    }
+
+    /**
+     * Prints the results of the last run.
+     */
+    public void printSummary() {
+        System.out.printf("%d sessions (%d won), %d frames in %.2fs%n",
+                sessionCount, wins.sum(), frames.sum(), seconds);
+        System.out.printf("%.1f KiB per session, %.0f frames/s on %d cores%n",
+                bytesPerSession / 1024.0, getFramesPerSecond(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Returns the heap in use after a full collection.
+     * @return The used heap in bytes.
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * A single game session, stepped one slice of frames at a time on whichever carrier is free.
+     */
+    private class Session implements Runnable {
+        private final HeadlessGame game;
+        private final Executor carriers;
+        private final CountDownLatch finished;
+
+        /**
+         * Constructs a new session with its own game.
+         * @param seed     The seed of the session's game.
+         * @param carriers The threads the session is stepped on.
+         * @param finished Counted down when the session ends.
+         */
+        Session(long seed, Executor carriers, CountDownLatch finished) {
+            Autopilot autopilot = Autopilot.good(seed);
+            this.game = new HeadlessGame(brickLines, bricksPerLine, seed, autopilot);
+            autopilot.attach(game.getManager());
+            this.carriers = carriers;
+            this.finished = finished;
+        }
+
+        /**
+         * Steps one slice of frames, then yields the carrier or finishes the session.
+         */
+        @Override
+        public void run() {
+            int sliceEnd = Math.min(maxFrames, game.getFrames() + FRAMES_PER_SLICE);
+            int sliceStart = game.getFrames();
+            while (!game.isFinished() && game.getFrames() < sliceEnd) {
+                game.step();
+            }
+            frames.add(game.getFrames() - sliceStart);
+            if (game.isFinished() || game.getFrames() >= maxFrames) {
+                if (game.isWon()) {
+                    wins.increment();
+                }
+                finished.countDown();
+            } else {
+                carriers.execute(this);
+            }
+        }
+    }
+
+    /**
+     * Runs many sessions on one carrier thread per core and prints the results.
+     * @param args Number of sessions, number of brick lines, bricks per line and frame limit.
+     * @throws InterruptedException If interrupted while waiting for the sessions.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int sessions = args.length > SESSIONS_ARG ? Integer.parseInt(args[SESSIONS_ARG]) : DEFAULT_SESSIONS;
+        int brickLines = args.length > BRICK_LINES_ARG ?
+                Integer.parseInt(args[BRICK_LINES_ARG]) : DEFAULT_BRICK_LINES;
+        int bricksPerLine = args.length > BRICKS_PER_LINE_ARG ?
+                Integer.parseInt(args[BRICKS_PER_LINE_ARG]) : DEFAULT_BRICKS_PER_LINE;
+        int maxFrames = args.length > MAX_FRAMES_ARG ?
+                Integer.parseInt(args[MAX_FRAMES_ARG]) : DEFAULT_MAX_FRAMES;
+        SessionHost host = new SessionHost(sessions, brickLines, bricksPerLine, maxFrames);
+        // FIFO queues, so a yielding session goes behind the others instead of running again at once
+        ForkJoinPool carriers = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        try {
+            host.run(carriers);
+        } finally {
+            carriers.shutdown();
+        }
+        host.printSummary();
+    }
+}
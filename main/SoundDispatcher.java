@@ -0,0 +1,113 @@
+package bricker.main;
+
+import danogl.gui.Sound;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * SoundDispatcher plays sounds on a background daemon thread, so a slow audio device never stalls
+ * a frame. The game thread only queues play requests; triggers of a clip that was already queued
+ * a moment ago are merged into one, and requests are dropped rather than waited for when the queue
+ * is full. The audio thread caps the number of simultaneous voices: a voice is considered busy for
+ * a fixed time after it started playing, and requests arriving while all voices are busy are dropped.
+ * trigger must only be called from the game thread.
+ * @author Batia
+ */
+public class SoundDispatcher {
+    private static final long MERGE_WINDOW_NANOS = 40_000_000L;
+    private static final long VOICE_NANOS = 100_000_000L;
+    private static final int MAX_VOICES = 4;
+    private static final int MAX_RECENT_CLIPS = 8;
+    private static final int QUEUE_CAPACITY = 64;
+    private final BlockingQueue<Sound> requests = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    // game thread only: when each recently triggered clip was last queued
+    private final Sound[] recentClips = new Sound[MAX_RECENT_CLIPS];
+    private final long[] lastQueued = new long[MAX_RECENT_CLIPS];
+    // audio thread only: when each voice becomes free again
+    private final long[] voiceFreeAt = new long[MAX_VOICES];
+    private Thread audioThread;
+
+    /**
+     * Starts the background audio thread. Does nothing if it is already running.
+     */
+    public synchronized void start() {
+        if (audioThread != null) {
+            return;
+        }
+        audioThread = new Thread(this::playRequests, "bricker-sound");
+        audioThread.setDaemon(true);
+        audioThread.start();
+    }
+
+    /**
+     * Stops the background audio thread; queued requests are discarded.
+     */
+    public synchronized void stop() {
+        if (audioThread == null) {
+            return;
+        }
+        audioThread.interrupt();
+        audioThread = null;
+        requests.clear();
+    }
+
+    /**
+     * Requests a clip to be played. Never blocks and does not allocate.
+     * @param clip The clip to play.
+     */
+    public void trigger(Sound clip) {
+        long now = System.nanoTime();
+        int slot = 0;
+        for (int i = 0; i < recentClips.length; i++) {
+            if (recentClips[i] == clip) {
+                if (now - lastQueued[i] < MERGE_WINDOW_NANOS) {
+                    return;
+                }
+                slot = i;
+                break;
+            }
+            // otherwise take an empty slot, or replace the clip queued the longest time ago
+            if (recentClips[slot] != null
+                    && (recentClips[i] == null || lastQueued[i] - lastQueued[slot] < 0)) {
+                slot = i;
+            }
+        }
+        if (requests.offer(clip)) {
+            recentClips[slot] = clip;
+            lastQueued[slot] = now;
+        }
+    }
+
+    /**
+     * The loop of the audio thread: plays every queued request that finds a free voice.
+     */
+    private void playRequests() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Sound clip = requests.take();
+                int voice = findFreeVoice(System.nanoTime());
+                if (voice >= 0) {
+                    voiceFreeAt[voice] = System.nanoTime() + VOICE_NANOS;
+                    clip.play();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Finds a voice that is not playing.
+     * @param now The current time.
+     * @return The index of a free voice, or -1 if all voices are busy.
+     */
+    private int findFreeVoice(long now) {
+        for (int voice = 0; voice < voiceFreeAt.length; voice++) {
+            if (voiceFreeAt[voice] - now <= 0) {
+                return voice;
+            }
+        }
+        return -1;
+    }
+}
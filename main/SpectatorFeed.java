@@ -0,0 +1,448 @@
+package bricker.main;
+
+import bricker.gameobjects.AdditionalPaddle;
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.BrickField;
+import bricker.gameobjects.Heart;
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * SpectatorFeed broadcasts the state of a live game to spectators over a loopback TCP socket,
+ * so games can be watched and recorded without running the renderer on the game host.
+ * Every simulation step is encoded once, as a compact binary delta against the previous step,
+ * and fanned out to every connected spectator; a keyframe holding the whole state is sent
+ * periodically, and to any spectator that just connected or fell behind.
+ * <p>
+ * The game thread never blocks on a spectator: every spectator has a bounded queue drained by
+ * its own daemon writer thread, and a message that does not fit in the queue is dropped. A
+ * spectator that missed a delta cannot apply the following ones, so it is sent the next
+ * keyframe instead.
+ * <p>
+ * Every message is a 4-byte big-endian length followed by the message:
+ * <ul>
+ *     <li>the message type, KEYFRAME or DELTA, and the step number as varints;</li>
+ *     <li>a keyframe only: the brick layout, rows, columns, the position of the top-left brick,
+ *     the distance between neighbouring cells and the size of a brick;</li>
+ *     <li>a bitmask of the scalars that changed (all of them in a keyframe), then each changed
+ *     scalar: ball, paddle and extra paddle positions, whether the extra paddle is in the game,
+ *     lives left, bricks left and the scroll of the brick field, brick i being shown in row
+ *     (i / columns + scroll) % rows;</li>
+ *     <li>a bitmask of the object lists that changed, pucks and falling hearts, then each changed
+ *     list as a count followed by the position of each object;</li>
+ *     <li>a keyframe: the live bricks as the byte count and bytes of a little-endian bitset;
+ *     a delta: the number of bricks that were removed or added, followed by the gaps between
+ *     their indices.</li>
+ * </ul>
+ * Numbers are zigzag varints and positions are in quarters of a pixel.
+ * @author Batia
+ */
+public class SpectatorFeed {
+    /** Type of a message holding the whole state. */
+    public static final int KEYFRAME = 0;
+    /** Type of a message holding the changes since the previous step. */
+    public static final int DELTA = 1;
+    private static final int KEYFRAME_INTERVAL = 120;
+    private static final int CLIENT_QUEUE_CAPACITY = 64;
+    private static final float POSITION_SCALE = 4;
+    private static final int LENGTH_BYTES = 4;
+    private static final int INITIAL_MESSAGE_CAPACITY = 256;
+    private static final int BALL_X = 0;
+    private static final int BALL_Y = 1;
+    private static final int PADDLE_X = 2;
+    private static final int PADDLE_Y = 3;
+    private static final int EXTRA_PADDLE_X = 4;
+    private static final int EXTRA_PADDLE_Y = 5;
+    private static final int EXTRA_PADDLE_PRESENT = 6;
+    private static final int LIVES_LEFT = 7;
+    private static final int BRICKS_LEFT = 8;
+    private static final int BRICK_SCROLL = 9;
+    private static final int SCALARS = 10;
+    private static final int PUCKS = 0;
+    private static final int HEARTS = 1;
+    private static final int OBJECT_LISTS = 2;
+    private final int port;
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+    private ServerSocketChannel server;
+    // game thread only: the state of the current and of the previous step
+    private int[] scalars = new int[SCALARS];
+    private int[] previousScalars = new int[SCALARS];
+    private final int[][] positions = new int[OBJECT_LISTS][];
+    private final int[][] previousPositions = new int[OBJECT_LISTS][];
+    private final int[] counts = new int[OBJECT_LISTS];
+    private final int[] previousCounts = new int[OBJECT_LISTS];
+    private BitSet liveBricks = new BitSet();
+    private BitSet previousLiveBricks = new BitSet();
+    private final BitSet changedBricks = new BitSet();
+    private int step = 0;
+    private byte[] message = new byte[INITIAL_MESSAGE_CAPACITY];
+    private int messageLength;
+
+    /**
+     * Constructs a new feed, which listens once started.
+     * @param port The loopback port spectators connect to, or 0 for any free port.
+     */
+    public SpectatorFeed(int port) {
+        this.port = port;
+        for (int list = 0; list < OBJECT_LISTS; list++) {
+            positions[list] = new int[0];
+            previousPositions[list] = new int[0];
+        }
+    }
+
+    /**
+     * Starts listening for spectators on the loopback interface, on a background daemon thread.
+     * @throws IOException If the port cannot be bound.
+     */
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        Thread acceptThread = new Thread(this::acceptClients, "bricker-spectator-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    /**
+     * Stops listening and disconnects every spectator.
+     */
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        try {
+            server.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close spectator feed: " + e.getMessage());
+        }
+        server = null;
+        for (Client client : clients) {
+            client.close();
+        }
+    }
+
+    /**
+     * Returns the port spectators connect to.
+     * @return The bound port, or the requested one if the feed was not started.
+     */
+    public synchronized int getPort() {
+        return server == null ? port : server.socket().getLocalPort();
+    }
+
+    /**
+     * Returns the number of connected spectators.
+     * @return The spectator count.
+     */
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    /**
+     * Captures the state of the game at the end of a simulation step and sends it to every
+     * spectator. Called by the game thread; never blocks. Does nothing while no spectator is
+     * connected, apart from counting the step.
+     * @param manager The game manager of the game.
+     */
+    public void publish(BrickerGameManager manager) {
+        step++;
+        if (clients.isEmpty()) {
+            return;
+        }
+        capture(manager);
+        boolean periodicKeyframe = step % KEYFRAME_INTERVAL == 0;
+        byte[] delta = null;
+        byte[] keyframe = null;
+        for (Client client : clients) {
+            if (periodicKeyframe || client.needsKeyframe) {
+                if (keyframe == null) {
+                    keyframe = encode(manager.getBrickField(), true);
+                }
+                client.needsKeyframe = !client.queue.offer(keyframe);
+            } else {
+                if (delta == null) {
+                    delta = encode(manager.getBrickField(), false);
+                }
+                client.needsKeyframe = !client.queue.offer(delta);
+            }
+        }
+        swapStates();
+    }
+
+    /**
+     * Reads the state of the game into the current state.
+     * @param manager The game manager of the game.
+     */
+    private void capture(BrickerGameManager manager) {
+        Ball ball = manager.getBall();
+        scalars[BALL_X] = quantize(ball.getTopLeftCorner().x());
+        scalars[BALL_Y] = quantize(ball.getTopLeftCorner().y());
+        Vector2 paddle = manager.getMainPaddle().getTopLeftCorner();
+        scalars[PADDLE_X] = quantize(paddle.x());
+        scalars[PADDLE_Y] = quantize(paddle.y());
+        AdditionalPaddle extraPaddle = manager.getExtraPaddle();
+        scalars[EXTRA_PADDLE_PRESENT] = extraPaddle == null ? 0 : 1;
+        scalars[EXTRA_PADDLE_X] = extraPaddle == null ? 0 : quantize(extraPaddle.getTopLeftCorner().x());
+        scalars[EXTRA_PADDLE_Y] = extraPaddle == null ? 0 : quantize(extraPaddle.getTopLeftCorner().y());
+        scalars[LIVES_LEFT] = manager.getLivesLeft();
+        scalars[BRICKS_LEFT] = manager.getBricksLeft();
+        scalars[BRICK_SCROLL] = manager.getBrickField().getScroll();
+        GameObjectPool<Ball> pucks = manager.getPucks();
+        counts[PUCKS] = pucks.getLiveCount();
+        ensurePositionCapacity(PUCKS);
+        for (int i = 0; i < counts[PUCKS]; i++) {
+            storePosition(PUCKS, i, pucks.getLive(i));
+        }
+        GameObjectPool<Heart> hearts = manager.getFallingHearts();
+        counts[HEARTS] = hearts.getLiveCount();
+        ensurePositionCapacity(HEARTS);
+        for (int i = 0; i < counts[HEARTS]; i++) {
+            storePosition(HEARTS, i, hearts.getLive(i));
+        }
+        manager.getBrickField().copyLiveTo(liveBricks);
+    }
+
+    /**
+     * Encodes the current state as a length-prefixed message.
+     * @param brickField The brick field of the game, for the layout of a keyframe.
+     * @param keyframe   true to encode the whole state, false to encode the changes since the
+     *                   previous step.
+     * @return The encoded message, shared by every spectator it is sent to.
+     */
+    private byte[] encode(BrickField brickField, boolean keyframe) {
+        messageLength = LENGTH_BYTES;
+        writeVarInt(keyframe ? KEYFRAME : DELTA);
+        writeVarInt(step);
+        if (keyframe) {
+            writeVarInt(brickField.getRows());
+            writeVarInt(brickField.getColumns());
+            int topLeftBrick = brickField.size() > 0 ? brickField.getBrick(0, 0) : -1;
+            writeVarInt(topLeftBrick >= 0 ? quantize(brickField.getX(topLeftBrick)) : 0);
+            writeVarInt(topLeftBrick >= 0 ? quantize(brickField.getY(topLeftBrick)) : 0);
+            writeVarInt(quantize(brickField.getCellWidth()));
+            writeVarInt(quantize(brickField.getCellHeight()));
+            writeVarInt(topLeftBrick >= 0 ? quantize(brickField.getWidth(topLeftBrick)) : 0);
+            writeVarInt(topLeftBrick >= 0 ? quantize(brickField.getHeight(topLeftBrick)) : 0);
+        }
+        int scalarMask = 0;
+        for (int i = 0; i < SCALARS; i++) {
+            if (keyframe || scalars[i] != previousScalars[i]) {
+                scalarMask |= 1 << i;
+            }
+        }
+        writeVarInt(scalarMask);
+        for (int i = 0; i < SCALARS; i++) {
+            if ((scalarMask & (1 << i)) != 0) {
+                writeVarInt(scalars[i]);
+            }
+        }
+        int listMask = 0;
+        for (int list = 0; list < OBJECT_LISTS; list++) {
+            if (keyframe || hasListChanged(list)) {
+                listMask |= 1 << list;
+            }
+        }
+        writeVarInt(listMask);
+        for (int list = 0; list < OBJECT_LISTS; list++) {
+            if ((listMask & (1 << list)) != 0) {
+                writeVarInt(counts[list]);
+                for (int i = 0; i < counts[list] * 2; i++) {
+                    writeVarInt(positions[list][i]);
+                }
+            }
+        }
+        if (keyframe) {
+            byte[] bits = liveBricks.toByteArray();
+            writeVarInt(bits.length);
+            for (byte bit : bits) {
+                writeByte(bit);
+            }
+        } else {
+            changedBricks.clear();
+            changedBricks.or(liveBricks);
+            changedBricks.xor(previousLiveBricks);
+            writeVarInt(changedBricks.cardinality());
+            int previous = 0;
+            for (int brick = changedBricks.nextSetBit(0); brick >= 0; brick = changedBricks.nextSetBit(brick + 1)) {
+                writeVarInt(brick - previous);
+                previous = brick;
+            }
+        }
+        int length = messageLength - LENGTH_BYTES;
+        message[0] = (byte) (length >>> 24);
+        message[1] = (byte) (length >>> 16);
+        message[2] = (byte) (length >>> 8);
+        message[3] = (byte) length;
+        return Arrays.copyOf(message, messageLength);
+    }
+
+    /**
+     * Returns whether an object list differs from the previous step.
+     * @param list PUCKS or HEARTS.
+     * @return true if the count or any position changed.
+     */
+    private boolean hasListChanged(int list) {
+        return counts[list] != previousCounts[list]
+                || !Arrays.equals(positions[list], 0, counts[list] * 2,
+                previousPositions[list], 0, counts[list] * 2);
+    }
+
+    /**
+     * Makes the current state the previous one, reusing the previous state's storage.
+     */
+    private void swapStates() {
+        int[] swappedScalars = previousScalars;
+        previousScalars = scalars;
+        scalars = swappedScalars;
+        for (int list = 0; list < OBJECT_LISTS; list++) {
+            int[] swappedPositions = previousPositions[list];
+            previousPositions[list] = positions[list];
+            positions[list] = swappedPositions;
+            previousCounts[list] = counts[list];
+        }
+        BitSet swappedBricks = previousLiveBricks;
+        previousLiveBricks = liveBricks;
+        liveBricks = swappedBricks;
+    }
+
+    /**
+     * Grows the position storage of an object list to hold its current count.
+     * @param list PUCKS or HEARTS.
+     */
+    private void ensurePositionCapacity(int list) {
+        if (positions[list].length < counts[list] * 2) {
+            positions[list] = Arrays.copyOf(positions[list], counts[list] * 4);
+        }
+    }
+
+    /**
+     * Stores the position of an object of a list.
+     * @param list   PUCKS or HEARTS.
+     * @param index  The index of the object in the list.
+     * @param object The object.
+     */
+    private void storePosition(int list, int index, GameObject object) {
+        Vector2 topLeftCorner = object.getTopLeftCorner();
+        positions[list][index * 2] = quantize(topLeftCorner.x());
+        positions[list][index * 2 + 1] = quantize(topLeftCorner.y());
+    }
+
+    /**
+     * Converts a coordinate to quarters of a pixel.
+     * @param coordinate The coordinate.
+     * @return The quantized coordinate.
+     */
+    private static int quantize(float coordinate) {
+        return Math.round(coordinate * POSITION_SCALE);
+    }
+
+    /**
+     * Appends a zigzag varint to the message.
+     * @param value The value to append.
+     */
+    private void writeVarInt(int value) {
+        int zigzag = (value << 1) ^ (value >> 31);
+        while ((zigzag & ~0x7F) != 0) {
+            writeByte((byte) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        writeByte((byte) zigzag);
+    }
+
+    /**
+     * Appends a byte to the message, growing it when needed.
+     * @param value The byte to append.
+     */
+    private void writeByte(byte value) {
+        if (messageLength == message.length) {
+            message = Arrays.copyOf(message, message.length * 2);
+        }
+        message[messageLength++] = value;
+    }
+
+    /**
+     * The loop of the accept thread: registers every spectator that connects.
+     */
+    private void acceptClients() {
+        ServerSocketChannel channel;
+        synchronized (this) {
+            channel = server;
+        }
+        while (channel != null && channel.isOpen()) {
+            try {
+                clients.add(new Client(channel.accept()));
+            } catch (IOException e) {
+                // the server was closed
+                return;
+            }
+        }
+    }
+
+    /**
+     * A connected spectator, with its bounded queue of messages and the daemon thread writing them.
+     */
+    private class Client {
+        private final SocketChannel channel;
+        private final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(CLIENT_QUEUE_CAPACITY);
+        private final Thread writerThread;
+        // game thread only
+        private boolean needsKeyframe = true;
+
+        /**
+         * Constructs a new spectator and starts its writer thread.
+         * @param channel The spectator's connection.
+         */
+        Client(SocketChannel channel) {
+            this.channel = channel;
+            this.writerThread = new Thread(this::writeMessages, "bricker-spectator-writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
+        }
+
+        /**
+         * The loop of the writer thread: writes queued messages until the spectator disconnects.
+         */
+        private void writeMessages() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    ByteBuffer buffer = ByteBuffer.wrap(queue.take());
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                // the spectator disconnected
+            }
+            close();
+        }
+
+        /**
+         * Disconnects the spectator and stops its writer thread.
+         */
+        private void close() {
+            clients.remove(this);
+            writerThread.interrupt();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close spectator connection: " + e.getMessage());
+            }
+        }
+    }
+}
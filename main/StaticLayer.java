@@ -0,0 +1,154 @@
+package bricker.main;
+
+import bricker.gameobjects.BrickField;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * StaticLayer pre-composites everything that almost never changes, the background scaled to the
+ * window and every live brick, into one off-screen image, which is drawn with a single blit per
+ * frame. When a brick is removed only its rectangle is repainted, from a pristine copy of the
+ * background and the neighbouring bricks, so the cost of a frame does not grow with the number
+ * of bricks. Effect bricks are drawn with the icon of their effect over the brick image.
+ * @author Batia
+ */
+public class StaticLayer implements Renderable {
+    private static final Vector2 NO_OFFSET = Vector2.ZERO;
+    private final BufferedImage background;
+    private final BufferedImage image;
+    private BrickField brickField;
+    private Renderable brickImage;
+    private final Renderable[] effectIcons = new Renderable[EffectType.values().length];
+
+    /**
+     * Constructs a new static layer holding the background.
+     * @param dimensions      The dimensions of the window.
+     * @param backgroundImage The background image, scaled to the window.
+     */
+    public StaticLayer(Vector2 dimensions, Renderable backgroundImage) {
+        int width = Math.round(dimensions.x());
+        int height = Math.round(dimensions.y());
+        this.background = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = background.createGraphics();
+        backgroundImage.render(g, NO_OFFSET, dimensions, 0, false, false, 1);
+        g.dispose();
+        g = image.createGraphics();
+        g.drawImage(background, 0, 0, null);
+        g.dispose();
+    }
+
+    /**
+     * Draws every live brick of a field over the background, replacing whatever bricks the layer
+     * held. Bricks removed later are erased with eraseBrick.
+     * @param brickField The field holding the bricks.
+     * @param brickImage The image every brick is drawn with.
+     */
+    public void drawBricks(BrickField brickField, Renderable brickImage) {
+        this.brickField = brickField;
+        this.brickImage = brickImage;
+        Graphics2D g = image.createGraphics();
+        g.drawImage(background, 0, 0, null);
+        for (int brick = brickField.nextLive(0); brick >= 0; brick = brickField.nextLive(brick + 1)) {
+            drawBrick(g, brick);
+        }
+        g.dispose();
+    }
+
+    /**
+     * Repaints the rectangle of a removed brick: the background, and any live neighbour that
+     * overlaps the rectangle.
+     * @param brick The index of the removed brick.
+     */
+    public void eraseBrick(int brick) {
+        int left = (int) Math.floor(brickField.getX(brick));
+        int top = (int) Math.floor(brickField.getY(brick));
+        int right = (int) Math.ceil(brickField.getX(brick) + brickField.getWidth(brick));
+        int bottom = (int) Math.ceil(brickField.getY(brick) + brickField.getHeight(brick));
+        Graphics2D g = image.createGraphics();
+        g.setClip(left, top, right - left, bottom - top);
+        g.drawImage(background, left, top, right, bottom, left, top, right, bottom, null);
+        int columns = brickField.getColumns();
+        int row = brickField.getRow(brick);
+        int column = brick % columns;
+        for (int neighbourRow = Math.max(0, row - 1);
+             neighbourRow <= Math.min(brickField.getRows() - 1, row + 1); neighbourRow++) {
+            for (int neighbourColumn = Math.max(0, column - 1);
+                 neighbourColumn <= Math.min(columns - 1, column + 1); neighbourColumn++) {
+                int neighbour = brickField.getBrick(neighbourRow, neighbourColumn);
+                if (brickField.isLive(neighbour)) {
+                    drawBrick(g, neighbour);
+                }
+            }
+        }
+        g.dispose();
+    }
+
+    /**
+     * Follows the field scrolling down by one row: the bricks already drawn are moved down with a
+     * single blit, the bottom row falling off the field, and only the new top row is painted.
+     */
+    public void scrollDown() {
+        int top = (int) Math.floor(brickField.getY(brickField.getBrick(0, 0)));
+        int cellHeight = Math.round(brickField.getCellHeight());
+        int height = Math.round((brickField.getRows() - 1) * brickField.getCellHeight());
+        Graphics2D g = image.createGraphics();
+        g.copyArea(0, top, image.getWidth(), height, 0, cellHeight);
+        g.setClip(0, top, image.getWidth(), cellHeight);
+        g.drawImage(background, 0, 0, null);
+        for (int column = 0; column < brickField.getColumns(); column++) {
+            int brick = brickField.getBrick(0, column);
+            if (brickField.isLive(brick)) {
+                drawBrick(g, brick);
+            }
+        }
+        g.dispose();
+    }
+
+    /**
+     * Sets the icon drawn on the bricks starting an effect. Takes effect from the next drawBricks.
+     * @param type The effect.
+     * @param icon The icon, square, drawn at the center of the brick.
+     */
+    public void setEffectIcon(EffectType type, Renderable icon) {
+        effectIcons[type.ordinal()] = icon;
+    }
+
+    /**
+     * Draws a single brick into the layer, with its effect's icon if it is an effect brick.
+     * @param g     The graphics of the layer's image.
+     * @param brick The index of the brick.
+     */
+    private void drawBrick(Graphics2D g, int brick) {
+        float x = brickField.getX(brick);
+        float y = brickField.getY(brick);
+        float width = brickField.getWidth(brick);
+        float height = brickField.getHeight(brick);
+        brickImage.render(g, new Vector2(x, y), new Vector2(width, height), 0, false, false, 1);
+        EffectType effect = EffectType.ofBrickCode(brickField.getCode(brick));
+        if (effect != null && effectIcons[effect.ordinal()] != null) {
+            effectIcons[effect.ordinal()].render(g, new Vector2(x + (width - height) / 2, y),
+                    new Vector2(height, height), 0, false, false, 1);
+        }
+    }
+
+    /**
+     * Draws the whole layer with a single blit.
+     * @param g                     The graphics to draw on.
+     * @param topLeftCorner         The top-left corner of the layer on screen.
+     * @param dimensions            The dimensions of the layer on screen.
+     * @param rotation              Ignored, the layer is never rotated.
+     * @param isFlippedHorizontally Ignored, the layer is never flipped.
+     * @param isFlippedVertically   Ignored, the layer is never flipped.
+     * @param opacity               Ignored, the layer is opaque.
+     */
+    @Override
+    public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions, double rotation,
+                       boolean isFlippedHorizontally, boolean isFlippedVertically, double opacity) {
+        g.drawImage(image, Math.round(topLeftCorner.x()), Math.round(topLeftCorner.y()),
+                Math.round(dimensions.x()), Math.round(dimensions.y()), null);
+    }
+}
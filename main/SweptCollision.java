@@ -0,0 +1,152 @@
+package bricker.main;
+
+import bricker.gameobjects.Ball;
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+/**
+ * SweptCollision computes the exact time of impact of a ball's bounding box, moving in a straight
+ * line during a tick, against a static box (a brick, a wall or a paddle). Unlike a per-frame
+ * overlap test it cannot tunnel through thin objects, however fast the ball moves or however
+ * long the tick. An instance keeps the result of the last sweep and is reused, so sweeping
+ * does not allocate; it is not thread safe.
+ * @author Batia
+ */
+public class SweptCollision {
+    private float time;
+    private boolean normalAlongX;
+    private float impactX;
+    private float impactY;
+
+    /**
+     * Sweeps a box from one position to another against a static box.
+     * @param fromX        The x coordinate of the moving box's top-left corner at the start of the tick.
+     * @param fromY        The y coordinate of the moving box's top-left corner at the start of the tick.
+     * @param toX          The x coordinate of the moving box's top-left corner at the end of the tick.
+     * @param toY          The y coordinate of the moving box's top-left corner at the end of the tick.
+     * @param width        The width of the moving box.
+     * @param height       The height of the moving box.
+     * @param targetX      The x coordinate of the static box's top-left corner.
+     * @param targetY      The y coordinate of the static box's top-left corner.
+     * @param targetWidth  The width of the static box.
+     * @param targetHeight The height of the static box.
+     * @return true if the boxes touch during the tick; the time of impact is then given by getTime.
+     */
+    public boolean sweep(float fromX, float fromY, float toX, float toY, float width, float height,
+                         float targetX, float targetY, float targetWidth, float targetHeight) {
+        float dx = toX - fromX;
+        float dy = toY - fromY;
+        float entryX;
+        float exitX;
+        if (dx == 0) {
+            if (fromX + width <= targetX || fromX >= targetX + targetWidth) {
+                return false;
+            }
+            entryX = Float.NEGATIVE_INFINITY;
+            exitX = Float.POSITIVE_INFINITY;
+        } else if (dx > 0) {
+            entryX = (targetX - (fromX + width)) / dx;
+            exitX = (targetX + targetWidth - fromX) / dx;
+        } else {
+            entryX = (targetX + targetWidth - fromX) / dx;
+            exitX = (targetX - (fromX + width)) / dx;
+        }
+        float entryY;
+        float exitY;
+        if (dy == 0) {
+            if (fromY + height <= targetY || fromY >= targetY + targetHeight) {
+                return false;
+            }
+            entryY = Float.NEGATIVE_INFINITY;
+            exitY = Float.POSITIVE_INFINITY;
+        } else if (dy > 0) {
+            entryY = (targetY - (fromY + height)) / dy;
+            exitY = (targetY + targetHeight - fromY) / dy;
+        } else {
+            entryY = (targetY + targetHeight - fromY) / dy;
+            exitY = (targetY - (fromY + height)) / dy;
+        }
+        float entry = Math.max(entryX, entryY);
+        float exit = Math.min(exitX, exitY);
+        if (entry > exit || entry > 1 || exit <= 0) {
+            return false;
+        }
+        // boxes already overlapping at the start of the tick are hit immediately
+        time = Math.max(entry, 0);
+        normalAlongX = entryX > entryY;
+        return true;
+    }
+
+    /**
+     * Sweeps a ball from its position at the start of the tick to its current position
+     * against a static game object.
+     * @param ball   The ball.
+     * @param fromX  The x coordinate of the ball's top-left corner at the start of the tick.
+     * @param fromY  The y coordinate of the ball's top-left corner at the start of the tick.
+     * @param target The static game object.
+     * @return true if the ball touches the object during the tick.
+     */
+    public boolean sweep(Ball ball, float fromX, float fromY, GameObject target) {
+        Vector2 position = ball.getTopLeftCorner();
+        Vector2 dimensions = ball.getDimensions();
+        Vector2 targetPosition = target.getTopLeftCorner();
+        Vector2 targetDimensions = target.getDimensions();
+        return sweep(fromX, fromY, position.x(), position.y(), dimensions.x(), dimensions.y(),
+                targetPosition.x(), targetPosition.y(), targetDimensions.x(), targetDimensions.y());
+    }
+
+    /**
+     * Resolves the last sweep of a ball: moves the ball to the point of impact, reflects the rest
+     * of its movement during the tick off the surface it hit and bounces its velocity. The point of
+     * impact is kept, so the reflected rest of the movement can be swept again from there.
+     * @param ball  The ball that was swept.
+     * @param fromX The x coordinate of the ball's top-left corner at the start of the tick.
+     * @param fromY The y coordinate of the ball's top-left corner at the start of the tick.
+     */
+    public void resolve(Ball ball, float fromX, float fromY) {
+        Vector2 position = ball.getTopLeftCorner();
+        float dx = position.x() - fromX;
+        float dy = position.y() - fromY;
+        float remaining = 1 - time;
+        impactX = fromX + dx * time;
+        impactY = fromY + dy * time;
+        float x = fromX + dx * time + (normalAlongX ? -dx : dx) * remaining;
+        float y = fromY + dy * time + (normalAlongX ? dy : -dy) * remaining;
+        ball.setTopLeftCorner(new Vector2(x, y));
+        ball.bounce(getNormal());
+    }
+
+    /**
+     * Returns the time of impact of the last successful sweep.
+     * @return The fraction of the tick, between 0 and 1, at which the boxes first touch.
+     */
+    public float getTime() {
+        return time;
+    }
+
+    /**
+     * Returns the x coordinate of the ball's top-left corner at the point of impact of the last
+     * resolved sweep.
+     * @return The x coordinate.
+     */
+    public float getImpactX() {
+        return impactX;
+    }
+
+    /**
+     * Returns the y coordinate of the ball's top-left corner at the point of impact of the last
+     * resolved sweep.
+     * @return The y coordinate.
+     */
+    public float getImpactY() {
+        return impactY;
+    }
+
+    /**
+     * Returns the normal of the surface hit in the last successful sweep.
+     * @return A unit vector along the axis of the hit surface's normal.
+     */
+    public Vector2 getNormal() {
+        return normalAlongX ? Vector2.RIGHT : Vector2.UP;
+    }
+}
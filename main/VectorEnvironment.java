@@ -0,0 +1,430 @@
+package bricker.main;
+
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.BrickField;
+import bricker.gameobjects.KeyInput;
+import bricker.gameobjects.Paddle;
+import danogl.util.Vector2;
+
+import java.awt.event.KeyEvent;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * VectorEnvironment is a training environment for paddle agents that runs many independent
+ * headless boards in lockstep in one JVM. reset seeds every board and step applies one action
+ * per board, advancing all boards together. Observations, rewards and done flags are written into
+ * buffers the caller binds once, so a step allocates nothing.
+ * <p>
+ * The observation of a board is a fixed-size block of floats, in window pixels: the paddle's
+ * center x; the ball's top-left x and y and its velocity; the number of pucks followed by the
+ * position and velocity of up to maxPucks pucks, zero for missing ones; the lives left; then one
+ * float per brick, 1 if the brick is live, row by row from the top. The reward of a step is the
+ * number of bricks removed minus LIFE_PENALTY per life lost. A board whose game ended, or that
+ * reached the frame limit, reports done and starts its next episode with the following seed, so
+ * the observation written with done is already the first one of the new episode.
+ * <p>
+ * The boards are split between the calling thread and persistent worker threads. Workers spin
+ * briefly and then park between steps, so a step needs no task objects or locks.
+ * @author Batia
+ */
+public class VectorEnvironment implements AutoCloseable {
+    /** Action keeping the paddle still. */
+    public static final int STAY = 0;
+    /** Action moving the paddle left. */
+    public static final int LEFT = 1;
+    /** Action moving the paddle right. */
+    public static final int RIGHT = 2;
+    /** Reward lost for every life lost. */
+    public static final float LIFE_PENALTY = 10;
+    private static final int SPIN_LIMIT = 1 << 12;
+    private static final int PUCK_FLOATS = 4;
+    private final int boardCount;
+    private final int brickLines;
+    private final int bricksPerLine;
+    private final int maxPucks;
+    private final int maxFrames;
+    private final int observationSize;
+    private final Board[] boards;
+    private final Thread[] workers;
+    private final AtomicInteger pendingWorkers = new AtomicInteger();
+    private volatile long generation = 0;
+    private volatile boolean closed = false;
+    private volatile Throwable failure;
+    private boolean started = false;
+    private Thread caller;
+    // bound by the caller, read by every worker once a step is published
+    private float[] observationArray;
+    private ByteBuffer observationBuffer;
+    private float[] rewards;
+    private boolean[] dones;
+    private int[] actions;
+    private long baseSeed;
+
+    /**
+     * Constructs a new environment of boards of the same size.
+     * @param boardCount    The number of boards.
+     * @param brickLines    The number of rows of bricks of every board.
+     * @param bricksPerLine The number of bricks in each row.
+     * @param maxPucks      The number of pucks an observation has room for.
+     * @param maxFrames     The number of steps after which an episode is cut short.
+     * @param threads       The number of threads stepping the boards, the calling thread included.
+     */
+    public VectorEnvironment(int boardCount, int brickLines, int bricksPerLine, int maxPucks, int maxFrames,
+                             int threads) {
+        this.boardCount = boardCount;
+        this.brickLines = brickLines;
+        this.bricksPerLine = bricksPerLine;
+        this.maxPucks = maxPucks;
+        this.maxFrames = maxFrames;
+        this.observationSize = 1 + 4 + 1 + maxPucks * PUCK_FLOATS + 1 + brickLines * bricksPerLine;
+        this.boards = new Board[boardCount];
+        for (int i = 0; i < boardCount; i++) {
+            boards[i] = new Board(i);
+        }
+        int workerCount = Math.max(0, Math.min(threads, boardCount) - 1);
+        this.workers = new Thread[workerCount];
+        for (int w = 0; w < workerCount; w++) {
+            int chunk = w + 1;
+            workers[w] = new Thread(() -> runWorker(chunk), "bricker-env-" + chunk);
+            workers[w].setDaemon(true);
+            workers[w].start();
+        }
+    }
+
+    /**
+     * Returns the number of floats of a board's observation.
+     * @return The observation size.
+     */
+    public int getObservationSize() {
+        return observationSize;
+    }
+
+    /**
+     * Returns the number of boards.
+     * @return The board count.
+     */
+    public int getBoardCount() {
+        return boardCount;
+    }
+
+    /**
+     * Binds the arrays the environment writes to. Board i writes its observation at
+     * i * getObservationSize() and its reward and done flag at index i.
+     * @param observations Room for getBoardCount() observations.
+     * @param rewards      Room for getBoardCount() rewards.
+     * @param dones        Room for getBoardCount() done flags.
+     */
+    public void bind(float[] observations, float[] rewards, boolean[] dones) {
+        checkSizes(observations.length, rewards, dones);
+        this.observationArray = observations;
+        this.observationBuffer = null;
+        this.rewards = rewards;
+        this.dones = dones;
+    }
+
+    /**
+     * Binds a buffer, typically a direct one shared with native code, for the observations,
+     * written as native-order floats from the buffer's start. The floats are written through a
+     * view of the buffer, so the caller's buffer keeps its own byte order and position.
+     * @param observations Room for getBoardCount() observations.
+     * @param rewards      Room for getBoardCount() rewards.
+     * @param dones        Room for getBoardCount() done flags.
+     */
+    public void bind(ByteBuffer observations, float[] rewards, boolean[] dones) {
+        checkSizes(observations.capacity() / Float.BYTES, rewards, dones);
+        this.observationBuffer = observations.duplicate().order(ByteOrder.nativeOrder());
+        this.observationArray = null;
+        this.rewards = rewards;
+        this.dones = dones;
+    }
+
+    /**
+     * Starts a new episode on every board, board i being seeded with seed + i, and writes the
+     * first observations. Rewards and done flags are cleared.
+     * @param seed The seed of the first board.
+     */
+    public void reset(long seed) {
+        checkOpen();
+        checkBound();
+        this.baseSeed = seed;
+        this.started = true;
+        for (Board board : boards) {
+            board.episode = 0;
+            board.startEpisode();
+            rewards[board.index] = 0;
+            dones[board.index] = false;
+            writeObservation(board);
+        }
+    }
+
+    /**
+     * Applies one action to every board and advances all boards by one step, writing their
+     * observations, rewards and done flags. If a board fails to step, the step still waits for
+     * every board and then throws; the environment can be reset and used again.
+     * @param actions One of STAY, LEFT or RIGHT per board.
+     */
+    public void step(int[] actions) {
+        checkOpen();
+        checkBound();
+        if (!started) {
+            throw new IllegalStateException("Reset the environment before stepping it");
+        }
+        if (actions.length < boardCount) {
+            throw new IllegalArgumentException("Expected " + boardCount + " actions, got " + actions.length);
+        }
+        this.actions = actions;
+        caller = Thread.currentThread();
+        pendingWorkers.set(workers.length);
+        generation++;
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+        }
+        try {
+            stepChunk(0);
+        } catch (Throwable e) {
+            // the workers are still stepping their boards, so wait for them before throwing
+            failure = e;
+        }
+        for (int spins = 0; pendingWorkers.get() > 0; spins++) {
+            if (spins < SPIN_LIMIT) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.park(this);
+            }
+        }
+        Throwable stepFailure = failure;
+        if (stepFailure != null) {
+            failure = null;
+            throw new IllegalStateException("A board failed to step", stepFailure);
+        }
+    }
+
+    /**
+     * Stops the worker threads and waits for them to exit. The environment cannot be reset or
+     * stepped once closed.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * The loop of a worker thread: steps its chunk of boards every time a step is published.
+     * @param chunk The index of the worker's chunk of boards.
+     */
+    private void runWorker(int chunk) {
+        long seen = 0;
+        while (!closed) {
+            for (int spins = 0; generation == seen && !closed; spins++) {
+                if (spins < SPIN_LIMIT) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+            if (closed) {
+                return;
+            }
+            seen = generation;
+            try {
+                stepChunk(chunk);
+            } catch (Throwable e) {
+                failure = e;
+            }
+            if (pendingWorkers.decrementAndGet() == 0) {
+                LockSupport.unpark(caller);
+            }
+        }
+    }
+
+    /**
+     * Steps one chunk of the boards.
+     * @param chunk The index of the chunk, 0 being the calling thread's.
+     */
+    private void stepChunk(int chunk) {
+        int chunks = workers.length + 1;
+        int from = (int) ((long) boardCount * chunk / chunks);
+        int to = (int) ((long) boardCount * (chunk + 1) / chunks);
+        for (int i = from; i < to; i++) {
+            stepBoard(boards[i], actions[i]);
+        }
+    }
+
+    /**
+     * Steps a single board and writes its results, starting its next episode if it is done.
+     * @param board  The board.
+     * @param action The action of the board's agent.
+     */
+    private void stepBoard(Board board, int action) {
+        board.input.action = action;
+        board.game.step();
+        BrickerGameManager manager = board.game.getManager();
+        int bricksRemoved = board.bricksLeft - manager.getBricksLeft();
+        int livesLost = manager.getLivesLost() - board.livesLost;
+        board.bricksLeft = manager.getBricksLeft();
+        board.livesLost = manager.getLivesLost();
+        rewards[board.index] = bricksRemoved - LIFE_PENALTY * livesLost;
+        boolean done = board.game.isFinished() || board.game.getFrames() >= maxFrames;
+        dones[board.index] = done;
+        if (done) {
+            board.episode++;
+            board.startEpisode();
+        }
+        writeObservation(board);
+    }
+
+    /**
+     * Writes the observation of a board into the bound array or buffer.
+     * @param board The board.
+     */
+    private void writeObservation(Board board) {
+        BrickerGameManager manager = board.game.getManager();
+        int at = board.index * observationSize;
+        Paddle paddle = manager.getMainPaddle();
+        at = put(at, paddle.getTopLeftCorner().x() + paddle.getDimensions().x() / 2);
+        at = putBall(at, manager.getBall());
+        GameObjectPool<Ball> pucks = manager.getPucks();
+        int observedPucks = Math.min(pucks.getLiveCount(), maxPucks);
+        at = put(at, observedPucks);
+        for (int i = 0; i < maxPucks; i++) {
+            if (i < observedPucks) {
+                at = putBall(at, pucks.getLive(i));
+            } else {
+                for (int j = 0; j < PUCK_FLOATS; j++) {
+                    at = put(at, 0);
+                }
+            }
+        }
+        at = put(at, manager.getLivesLeft());
+        BrickField brickField = manager.getBrickField();
+        for (int row = 0; row < brickLines; row++) {
+            for (int column = 0; column < bricksPerLine; column++) {
+                at = put(at, brickField.isLive(brickField.getBrick(row, column)) ? 1 : 0);
+            }
+        }
+    }
+
+    /**
+     * Writes the position and velocity of a ball.
+     * @param at   The index to write at.
+     * @param ball The ball.
+     * @return The index after the written floats.
+     */
+    private int putBall(int at, Ball ball) {
+        Vector2 topLeftCorner = ball.getTopLeftCorner();
+        Vector2 velocity = ball.getVelocity();
+        at = put(at, topLeftCorner.x());
+        at = put(at, topLeftCorner.y());
+        at = put(at, velocity.x());
+        return put(at, velocity.y());
+    }
+
+    /**
+     * Writes a single float of an observation.
+     * @param at    The index to write at.
+     * @param value The value.
+     * @return The next index.
+     */
+    private int put(int at, float value) {
+        if (observationArray != null) {
+            observationArray[at] = value;
+        } else {
+            observationBuffer.putFloat(at * Float.BYTES, value);
+        }
+        return at + 1;
+    }
+
+    /**
+     * Checks that the bound arrays are large enough for every board.
+     * @param observationFloats The number of floats of the observation array or buffer.
+     * @param rewards           The reward array.
+     * @param dones             The done array.
+     */
+    private void checkSizes(int observationFloats, float[] rewards, boolean[] dones) {
+        if (observationFloats < boardCount * observationSize || rewards.length < boardCount
+                || dones.length < boardCount) {
+            throw new IllegalArgumentException("Buffers too small for " + boardCount + " boards of "
+                    + observationSize + " observation floats");
+        }
+    }
+
+    /**
+     * Checks that the environment was not closed, as its workers no longer step their boards.
+     */
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("The environment is closed");
+        }
+    }
+
+    /**
+     * Checks that buffers were bound.
+     */
+    private void checkBound() {
+        if (rewards == null) {
+            throw new IllegalStateException("Bind the observation, reward and done buffers first");
+        }
+    }
+
+    /**
+     * The key input of a board's paddle, pressing the keys of the board's current action.
+     */
+    private static class ActionInput implements KeyInput {
+        private int action = STAY;
+
+        /**
+         * Presses the key of the current action.
+         * @param keyCode The key code, as defined in java.awt.event.KeyEvent.
+         * @return true if the action presses the given key.
+         */
+        @Override
+        public boolean isKeyPressed(int keyCode) {
+            return (keyCode == KeyEvent.VK_LEFT && action == LEFT)
+                    || (keyCode == KeyEvent.VK_RIGHT && action == RIGHT);
+        }
+    }
+
+    /**
+     * A single board: its current game and what its last step observed.
+     */
+    private class Board {
+        private final int index;
+        private final ActionInput input = new ActionInput();
+        private HeadlessGame game;
+        private long episode;
+        private int bricksLeft;
+        private int livesLost;
+
+        /**
+         * Constructs a new board, whose game starts on reset.
+         * @param index The index of the board.
+         */
+        Board(int index) {
+            this.index = index;
+        }
+
+        /**
+         * Starts the board's current episode, seeded so that every board and episode differs.
+         */
+        void startEpisode() {
+            input.action = STAY;
+            game = new HeadlessGame(brickLines, bricksPerLine, baseSeed + index + episode * boardCount, input);
+            bricksLeft = game.getManager().getBricksLeft();
+            livesLost = 0;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package bricker.main;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+
+import java.util.Arrays;
+
+/**
+ * WorldCommands is a command buffer of the changes to the game world raised while the engine and
+ * the brick field handle collisions: objects added to or removed from the game, bricks removed
+ * and lives gained. The commands are applied in one pass after the physics step, in the order
+ * they were raised, so nothing changes the game objects while the engine iterates them. Removing
+ * an object that is already waiting to be removed is ignored. The buffers grow when needed and
+ * are reused from one step to the next, so buffering does not allocate.
+ * @author Batia
+ */
+public class WorldCommands {
+    private static final int INITIAL_CAPACITY = 16;
+    private GameObject[] objects = new GameObject[INITIAL_CAPACITY];
+    private int[] layers = new int[INITIAL_CAPACITY];
+    private boolean[] adds = new boolean[INITIAL_CAPACITY];
+    private int objectCommands = 0;
+    private int[] removedBricks = new int[INITIAL_CAPACITY];
+    private int removedBrickCount = 0;
+    private int livesGained = 0;
+
+    /**
+     * Buffers adding an object to the game.
+     * @param object The object to add.
+     * @param layer  The layer to add it to.
+     */
+    public void add(GameObject object, int layer) {
+        append(object, layer, true);
+    }
+
+    /**
+     * Buffers removing an object from the game, unless its last buffered command already removes it.
+     * @param object The object to remove.
+     * @param layer  The layer to remove it from.
+     */
+    public void remove(GameObject object, int layer) {
+        for (int i = objectCommands - 1; i >= 0; i--) {
+            if (objects[i] == object) {
+                if (!adds[i]) {
+                    return;
+                }
+                break;
+            }
+        }
+        append(object, layer, false);
+    }
+
+    /**
+     * Buffers the side effects of removing a brick: the brick field already no longer holds it.
+     * @param brick The index of the removed brick.
+     */
+    public void removeBrick(int brick) {
+        if (removedBrickCount == removedBricks.length) {
+            removedBricks = Arrays.copyOf(removedBricks, removedBricks.length * 2);
+        }
+        removedBricks[removedBrickCount++] = brick;
+    }
+
+    /**
+     * Buffers gaining a life.
+     */
+    public void gainLife() {
+        livesGained++;
+    }
+
+    /**
+     * Applies the buffered adds and removes to the game objects, in the order they were raised.
+     * @param gameObjects The game objects of the game.
+     * @return The number of objects added.
+     */
+    public int applyObjects(GameObjectCollection gameObjects) {
+        int added = 0;
+        for (int i = 0; i < objectCommands; i++) {
+            if (adds[i]) {
+                gameObjects.addGameObject(objects[i], layers[i]);
+                added++;
+            } else {
+                gameObjects.removeGameObject(objects[i], layers[i]);
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Returns the number of bricks removed since the buffer was cleared.
+     * @return The number of removed bricks.
+     */
+    public int getRemovedBrickCount() {
+        return removedBrickCount;
+    }
+
+    /**
+     * Returns a brick removed since the buffer was cleared.
+     * @param i The position of the brick among the removed bricks.
+     * @return The index of the brick in the brick field.
+     */
+    public int getRemovedBrick(int i) {
+        return removedBricks[i];
+    }
+
+    /**
+     * Returns the number of lives gained since the buffer was cleared.
+     * @return The number of lives gained.
+     */
+    public int getLivesGained() {
+        return livesGained;
+    }
+
+    /**
+     * Empties the buffer, once its commands were applied or when the game is reset.
+     */
+    public void clear() {
+        Arrays.fill(objects, 0, objectCommands, null);
+        objectCommands = 0;
+        removedBrickCount = 0;
+        livesGained = 0;
+    }
+
+    /**
+     * Appends an object command to the buffer.
+     * @param object The object.
+     * @param layer  The layer of the object.
+     * @param add    true to add the object, false to remove it.
+     */
+    private void append(GameObject object, int layer, boolean add) {
+        if (objectCommands == objects.length) {
+            int capacity = objects.length * 2;
+            objects = Arrays.copyOf(objects, capacity);
+            layers = Arrays.copyOf(layers, capacity);
+            adds = Arrays.copyOf(adds, capacity);
+        }
+        objects[objectCommands] = object;
+        layers[objectCommands] = layer;
+        adds[objectCommands] = add;
+        objectCommands++;
+    }
+}